@@ -0,0 +1,35 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.6.6"
+}
+
+group = "net.golikov"
+version = "0.1-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    val jacksonVersion = "2.14.3"
+    jmhImplementation(project(":validation"))
+    jmhImplementation(project(":json-schema-parse"))
+    jmhImplementation("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
+    jmhImplementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
+}
+
+jmh {
+    jmhVersion.set("1.35")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    val heap = project.findProperty("jmh.heap") ?: "4g"
+    jvmArgs.set(listOf("-Xms$heap", "-Xmx$heap", "--add-modules=jdk.incubator.vector"))
+    // parameter overrides, e.g. -Pjmh.params=size=1GB;depth=1,4
+    (project.findProperty("jmh.params") as String?)?.split(';')?.forEach { param ->
+        val (name, values) = param.split('=', limit = 2)
+        benchmarkParameters.put(name, project.objects.listProperty<String>().value(values.split(',')))
+    }
+    profilers.set(listOf("gc", "net.golikov.json.schema.stream.benchmark.BytesPerTokenProfiler"))
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,64 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports heap allocated per validated token: bytes allocated by all threads during an
+ * iteration divided by the tokens benchmarks have reported via {@link #tokens(long)}.
+ * Enabled with {@code -prof net.golikov.json.schema.stream.benchmark.BytesPerTokenProfiler}.
+ */
+public class BytesPerTokenProfiler implements InternalProfiler {
+
+    private static final LongAdder TOKENS = new LongAdder();
+
+    private long allocatedBefore;
+    private long tokensBefore;
+
+    public static void tokens(long count) {
+        TOKENS.add(count);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Heap bytes allocated per validated token";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        tokensBefore = TOKENS.sum();
+        allocatedBefore = allocatedBytes();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams,
+                                                       IterationResult result) {
+        long allocated = allocatedBytes() - allocatedBefore;
+        long tokens = TOKENS.sum() - tokensBefore;
+        if (tokens == 0 || allocated < 0) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new ScalarResult("alloc.bytes.per.token",
+                (double) allocated / tokens, "B/token", AggregationPolicy.AVG));
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+import net.golikov.json.schema.stream.ArrayItems;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.CurrentToken;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.MultipleOf;
+import net.golikov.json.schema.stream.NumberRange;
+import net.golikov.json.schema.stream.ResettableValidationContext;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Range and {@code multipleOf} checks of a metric array, with {@link NumberRange} and
+ * {@link MultipleOf} reading numbers as scaled {@code long} values, compared to the same
+ * checks on a {@link BigDecimal} created from the text of every number.
+ */
+@State(Scope.Thread)
+public class NumberKeywordsBenchmark {
+
+    private static final BigDecimal MINIMUM = BigDecimal.ZERO;
+    private static final BigDecimal MAXIMUM = new BigDecimal("1000000");
+    private static final BigDecimal DIVISOR = new BigDecimal("0.001");
+
+    private byte[] document;
+    private Utf8Tokenizer tokenizer;
+    private StreamValidator<ArrayItems.ValidationContext<CompositeValidator.ValidationContext>> exactLoop;
+    private ArrayItems.ValidationContext<CompositeValidator.ValidationContext> exactContext;
+    private StreamValidator<ArrayItems.ValidationContext<BigDecimalKeywords.ValidationContext>> bigDecimalLoop;
+    private ArrayItems.ValidationContext<BigDecimalKeywords.ValidationContext> bigDecimalContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(25);
+        StringBuilder metrics = new StringBuilder("[");
+        for (int i = 0; i < 100_000; i++) {
+            if (i > 0) {
+                metrics.append(',');
+            }
+            switch (i % 4) {
+                case 0:
+                    metrics.append(random.nextInt(1_000_000));
+                    break;
+                case 1:
+                    metrics.append(random.nextInt(100_000)).append('.').append(random.nextInt(1000));
+                    break;
+                case 2:
+                    metrics.append(random.nextInt(1000)).append('.').append(random.nextInt(10));
+                    break;
+                default:
+                    metrics.append(random.nextInt(1000)).append("e-").append(random.nextInt(3));
+            }
+        }
+        document = metrics.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        tokenizer = new Utf8Tokenizer(document, 0, document.length);
+        ArrayItems<CompositeValidator.ValidationContext> exact = new ArrayItems<>(new CompiledSchema(Arrays.asList(
+                new NumberRange(MINIMUM, null, MAXIMUM, null), new MultipleOf(DIVISOR))));
+        exactLoop = new StreamValidator<>(exact);
+        exactContext = exact.newContext();
+        ArrayItems<BigDecimalKeywords.ValidationContext> bigDecimal = new ArrayItems<>(new BigDecimalKeywords());
+        bigDecimalLoop = new StreamValidator<>(bigDecimal);
+        bigDecimalContext = bigDecimal.newContext();
+        if (exactKeywords() != bigDecimalKeywords()) {
+            throw new IllegalStateException("Exact keywords differ from BigDecimal ones");
+        }
+    }
+
+    @Benchmark
+    public boolean exactKeywords() throws IOException {
+        exactContext.reset();
+        tokenizer.reset(document, 0, document.length);
+        return exactLoop.validate(exactContext, tokenizer).hasErrors();
+    }
+
+    @Benchmark
+    public boolean bigDecimalKeywords() throws IOException {
+        bigDecimalContext.reset();
+        tokenizer.reset(document, 0, document.length);
+        return bigDecimalLoop.validate(bigDecimalContext, tokenizer).hasErrors();
+    }
+
+    private static final class BigDecimalKeywords implements KeywordValidator<BigDecimalKeywords.ValidationContext> {
+
+        @Override
+        public ValidationContext newContext() {
+            return new ValidationContext();
+        }
+
+        @Override
+        public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+            int id = token.currentTokenId();
+            context.validated = true;
+            if (id == JsonTokenId.ID_NUMBER_INT || id == JsonTokenId.ID_NUMBER_FLOAT) {
+                BigDecimal value = new BigDecimal(token.getText());
+                context.valid = value.compareTo(MINIMUM) >= 0 && value.compareTo(MAXIMUM) <= 0
+                        && value.remainder(DIVISOR).signum() == 0;
+            } else {
+                context.valid = true;
+            }
+            return context;
+        }
+
+        private static final class ValidationContext implements ResettableValidationContext {
+
+            private boolean validated;
+            private boolean valid;
+
+            @Override
+            public void reset() {
+                validated = false;
+                valid = false;
+            }
+
+            @Override
+            public boolean hasErrors() {
+                return validated && !valid;
+            }
+
+            @Override
+            public boolean isValidated() {
+                return validated;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Generated document shared by the benchmarks. Sizes up to 64MB fit the default heap; larger
+ * ones are opt-in, e.g. {@code -Pjmh.params=size=1GB -Pjmh.heap=16g}, as recorded tokens and
+ * structural indexes hold several copies of the document.
+ */
+@State(Scope.Benchmark)
+public class Payload {
+
+    @Param({"1KB", "64KB", "1MB", "64MB"})
+    public String size;
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    @Param({"1", "8", "64"})
+    public int requiredProperties;
+
+    @Param("42")
+    public long seed;
+
+    public List<String> requiredPropertyNames;
+    public byte[] document;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        requiredPropertyNames = PayloadGenerator.requiredPropertyNames(requiredProperties);
+        document = new PayloadGenerator(seed).document(PayloadGenerator.parseSize(size), depth, requiredPropertyNames);
+    }
+
+}
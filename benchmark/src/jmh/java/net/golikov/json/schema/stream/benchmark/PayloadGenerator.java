@@ -0,0 +1,131 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic, reproducible documents: a root object holding the required properties
+ * scattered between filler properties of every JSON type, nested up to a given depth.
+ */
+public class PayloadGenerator {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Random random;
+
+    public PayloadGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static List<String> requiredPropertyNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add("required" + i);
+        }
+        return names;
+    }
+
+    /**
+     * @param size  "1KB", "64MB", "1GB" and the like
+     */
+    public static int parseSize(String size) {
+        long multiplier = 1;
+        String digits = size;
+        if (size.endsWith("KB")) {
+            multiplier = 1L << 10;
+        } else if (size.endsWith("MB")) {
+            multiplier = 1L << 20;
+        } else if (size.endsWith("GB")) {
+            multiplier = 1L << 30;
+        }
+        if (multiplier > 1) {
+            digits = size.substring(0, size.length() - 2);
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, Long.parseLong(digits) * multiplier);
+    }
+
+    public byte[] document(int size, int depth, List<String> requiredPropertyNames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + size / 8);
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            int required = 0;
+            int filler = 0;
+            while (out.size() + generator.getOutputBuffered() < size || required < requiredPropertyNames.size()) {
+                if (required < requiredPropertyNames.size() && random.nextInt(4) == 0) {
+                    generator.writeFieldName(requiredPropertyNames.get(required++));
+                    value(generator, depth);
+                } else {
+                    generator.writeFieldName("field" + filler++);
+                    value(generator, depth);
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] schema(List<String> requiredPropertyNames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("$schema", "https://json-schema.org/draft/2020-12/schema");
+            generator.writeStringField("type", "object");
+            generator.writeArrayFieldStart("required");
+            for (String name : requiredPropertyNames) {
+                generator.writeString(name);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private void value(JsonGenerator generator, int depth) throws IOException {
+        switch (random.nextInt(depth > 0 ? 8 : 6)) {
+            case 0:
+                generator.writeString("value" + random.nextInt(1_000_000));
+                break;
+            case 1:
+                generator.writeNumber(random.nextInt());
+                break;
+            case 2:
+                generator.writeNumber(random.nextDouble() * 1000);
+                break;
+            case 3:
+                generator.writeBoolean(random.nextBoolean());
+                break;
+            case 4:
+                generator.writeNull();
+                break;
+            case 5:
+                generator.writeNumber(random.nextLong());
+                break;
+            case 6:
+                generator.writeStartObject();
+                for (int i = random.nextInt(8); i >= 0; i--) {
+                    generator.writeFieldName("nested" + i);
+                    value(generator, depth - 1);
+                }
+                generator.writeEndObject();
+                break;
+            default:
+                generator.writeStartArray();
+                for (int i = random.nextInt(8); i >= 0; i--) {
+                    value(generator, depth - 1);
+                }
+                generator.writeEndArray();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.CurrentToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Tokens of a document recorded once and replayed without parsing, so that validators can be
+ * measured in isolation.
+ */
+public class RecordedTokens implements CurrentToken {
+
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final JsonToken[] tokens;
+    private final JsonParser.NumberType[] numberTypes;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final char[] text;
+    private int current = -1;
+
+    public RecordedTokens(byte[] document) throws IOException {
+        JsonToken[] tokens = new JsonToken[1024];
+        JsonParser.NumberType[] numberTypes = new JsonParser.NumberType[1024];
+        int[] offsets = new int[1024];
+        int[] lengths = new int[1024];
+        char[] text = new char[4096];
+        int count = 0;
+        int textLength = 0;
+        try (JsonParser parser = new JsonFactory().createParser(document)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (count == tokens.length) {
+                    int capacity = grow(count, count + 1);
+                    tokens = Arrays.copyOf(tokens, capacity);
+                    numberTypes = Arrays.copyOf(numberTypes, capacity);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                    lengths = Arrays.copyOf(lengths, capacity);
+                }
+                int length = parser.getTextLength();
+                if ((long) textLength + length > text.length) {
+                    text = Arrays.copyOf(text, grow(text.length, (long) textLength + length));
+                }
+                System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), text, textLength, length);
+                tokens[count] = token;
+                numberTypes[count] = token.isNumeric() ? parser.getNumberType() : null;
+                offsets[count] = textLength;
+                lengths[count] = length;
+                textLength += length;
+                count++;
+            }
+        }
+        this.tokens = Arrays.copyOf(tokens, count);
+        this.numberTypes = numberTypes;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.text = text;
+    }
+
+    /**
+     * @return doubled capacity, at least the required one
+     * @throws IllegalArgumentException if the required capacity does not fit an array
+     */
+    private static int grow(int capacity, long required) {
+        if (required > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("Document has too many tokens or too much text to record");
+        }
+        return (int) Math.min(MAX_ARRAY_LENGTH, Math.max(2L * capacity, required));
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    public void rewind() {
+        current = -1;
+    }
+
+    public boolean next() {
+        return ++current < tokens.length;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return tokens[current];
+    }
+
+    @Override
+    public int currentTokenId() {
+        return tokens[current].id();
+    }
+
+    @Override
+    public String getText() {
+        return new String(text, offsets[current], lengths[current]);
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        return text;
+    }
+
+    @Override
+    public int getTextLength() {
+        return lengths[current];
+    }
+
+    @Override
+    public int getTextOffset() {
+        return offsets[current];
+    }
+
+    @Override
+    public JsonParser.NumberType getNumberType() {
+        return numberTypes[current];
+    }
+
+}
@@ -0,0 +1,71 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import net.golikov.json.schema.stream.IndexedRequiredProperties;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.RequiredProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Cost of the required properties validators alone, over tokens replayed from memory.
+ */
+@State(Scope.Thread)
+public class RequiredPropertiesBenchmark {
+
+    private RecordedTokens tokens;
+    private RequiredProperties requiredProperties;
+    private IndexedRequiredProperties indexedRequiredProperties;
+    private IndexedRequiredProperties.ValidationContext indexedContext;
+    private ObjectScopedRequiredProperties objectScopedRequiredProperties;
+    private ObjectScopedRequiredProperties.ValidationContext objectScopedContext;
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) throws IOException {
+        tokens = new RecordedTokens(payload.document);
+        requiredProperties = new RequiredProperties();
+        indexedRequiredProperties = new IndexedRequiredProperties(payload.requiredPropertyNames);
+        indexedContext = indexedRequiredProperties.newContext();
+        objectScopedRequiredProperties = new ObjectScopedRequiredProperties(payload.requiredPropertyNames);
+        objectScopedContext = objectScopedRequiredProperties.newContext();
+    }
+
+    @Benchmark
+    public boolean requiredProperties(Payload payload) throws IOException {
+        RequiredProperties.ValidationContext context =
+                new RequiredProperties.ValidationContext(payload.requiredPropertyNames);
+        tokens.rewind();
+        while (tokens.next()) {
+            context = requiredProperties.validate(context, tokens);
+        }
+        BytesPerTokenProfiler.tokens(tokens.size());
+        return context.hasErrors();
+    }
+
+    @Benchmark
+    public boolean indexedRequiredProperties() throws IOException {
+        indexedContext.reset();
+        tokens.rewind();
+        while (tokens.next()) {
+            indexedRequiredProperties.validate(indexedContext, tokens);
+        }
+        BytesPerTokenProfiler.tokens(tokens.size());
+        return indexedContext.hasErrors();
+    }
+
+    @Benchmark
+    public boolean objectScopedRequiredProperties() throws IOException {
+        objectScopedContext.reset();
+        tokens.rewind();
+        while (tokens.next()) {
+            objectScopedRequiredProperties.validate(objectScopedContext, tokens);
+        }
+        BytesPerTokenProfiler.tokens(tokens.size());
+        return objectScopedContext.hasErrors();
+    }
+
+}
@@ -0,0 +1,66 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.RequiredProperties;
+import net.golikov.json.schema.stream.parse.ParseResult;
+import net.golikov.json.schema.stream.parse.RequiredPropertiesJsonSchema;
+import net.golikov.json.schema.stream.parse.SchemaCompiler;
+import net.golikov.json.schema.stream.parse.StreamingSchemaCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+@State(Scope.Thread)
+public class SchemaParseBenchmark {
+
+    @Param({"1", "8", "64", "1024"})
+    public int requiredProperties;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory factory = new JsonFactory();
+    private byte[] schema;
+    private JsonNode schemaNode;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        schema = new PayloadGenerator(42).schema(PayloadGenerator.requiredPropertyNames(requiredProperties));
+        schemaNode = objectMapper.readTree(schema);
+    }
+
+    @Benchmark
+    public ParseResult<RequiredProperties.ValidationContext> readTreeAndRead() throws IOException {
+        return new RequiredPropertiesJsonSchema(objectMapper.readTree(schema)).read();
+    }
+
+    @Benchmark
+    public ParseResult<RequiredProperties.ValidationContext> read() {
+        return new RequiredPropertiesJsonSchema(schemaNode).read();
+    }
+
+    @Benchmark
+    public ParseResult<CompiledSchema> compile() {
+        return new SchemaCompiler().compile(schemaNode);
+    }
+
+    @Benchmark
+    public ParseResult<CompiledSchema> readTreeAndCompile() throws IOException {
+        return new SchemaCompiler().compile(objectMapper.readTree(schema));
+    }
+
+    @Benchmark
+    public ParseResult<CompiledSchema> compileStreaming() throws IOException {
+        try (JsonParser parser = factory.createParser(schema)) {
+            return new StreamingSchemaCompiler().compile(parser);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.JsonParserWrapper;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.StructuralIndex;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Building a {@link StructuralIndex} with and without the Vector API, and validating with the
+ * index skipping children compared to the {@link JsonParserWrapper} path. Run with
+ * {@code --add-modules=jdk.incubator.vector} for the vectorized index.
+ */
+@State(Scope.Thread)
+public class StructuralIndexBenchmark {
+
+    private final JsonFactory factory = new JsonFactory();
+    private final StructuralIndex vectorizedIndex = new StructuralIndex();
+    private final StructuralIndex scalarIndex = StructuralIndex.scalar();
+    private StreamValidator<CompositeValidator.ValidationContext> loop;
+    private CompositeValidator.ValidationContext context;
+    private Utf8Tokenizer tokenizer;
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) throws IOException {
+        CompiledSchema schema = new CompiledSchema(Collections.singletonList(
+                new ObjectScopedRequiredProperties(payload.requiredPropertyNames)));
+        loop = new StreamValidator<>(schema);
+        context = schema.newContext();
+        tokenizer = new Utf8Tokenizer(payload.document, 0, payload.document.length);
+        if (jsonParserWrapperLoop(payload) != indexedTokenizerLoop(payload)) {
+            throw new IllegalStateException("Indexed validation result differs from the Jackson one");
+        }
+    }
+
+    @Benchmark
+    public int vectorizedIndex(Payload payload) {
+        return vectorizedIndex.index(payload.document, 0, payload.document.length).size();
+    }
+
+    @Benchmark
+    public int scalarIndex(Payload payload) {
+        return scalarIndex.index(payload.document, 0, payload.document.length).size();
+    }
+
+    @Benchmark
+    public boolean jsonParserWrapperLoop(Payload payload) throws IOException {
+        context.reset();
+        try (JsonParserWrapper parser = new JsonParserWrapper(factory.createParser(payload.document))) {
+            return loop.validate(context, parser).hasErrors();
+        }
+    }
+
+    @Benchmark
+    public boolean indexedTokenizerLoop(Payload payload) throws IOException {
+        context.reset();
+        tokenizer.reset(payload.document, 0, payload.document.length,
+                vectorizedIndex.index(payload.document, 0, payload.document.length));
+        return loop.validate(context, tokenizer).hasErrors();
+    }
+
+}
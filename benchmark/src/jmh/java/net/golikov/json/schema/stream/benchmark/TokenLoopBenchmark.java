@@ -0,0 +1,120 @@
+package net.golikov.json.schema.stream.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.JsonParserWrapper;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ParserToken;
+import net.golikov.json.schema.stream.RequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import net.golikov.json.schema.stream.ValidationPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Full token loop: parsing with Jackson, going through {@link JsonParserWrapper} or the slim
+ * {@link ParserToken}, or tokenizing with {@link Utf8Tokenizer}, and validating.
+ */
+@State(Scope.Thread)
+public class TokenLoopBenchmark {
+
+    private final JsonFactory factory = new JsonFactory();
+    private long tokens;
+    private CompiledSchema schema;
+    private CompositeValidator.ValidationContext context;
+    private ValidationPool<CompositeValidator.ValidationContext> pool;
+    private Utf8Tokenizer tokenizer;
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) throws IOException {
+        try (JsonParser parser = factory.createParser(payload.document)) {
+            while (parser.nextToken() != null) {
+                tokens++;
+            }
+        }
+        schema = new CompiledSchema(Collections.singletonList(
+                new ObjectScopedRequiredProperties(payload.requiredPropertyNames)));
+        context = schema.newContext();
+        pool = new ValidationPool<>(factory, schema, 1);
+        tokenizer = new Utf8Tokenizer(payload.document, 0, payload.document.length);
+    }
+
+    @Benchmark
+    public int parseOnly(Payload payload) throws IOException {
+        int count = 0;
+        try (JsonParser parser = factory.createParser(payload.document)) {
+            while (parser.nextToken() != null) {
+                count++;
+            }
+        }
+        BytesPerTokenProfiler.tokens(count);
+        return count;
+    }
+
+    @Benchmark
+    public boolean requiredPropertiesLoop(Payload payload) throws IOException {
+        RequiredProperties validator = new RequiredProperties();
+        RequiredProperties.ValidationContext context =
+                new RequiredProperties.ValidationContext(payload.requiredPropertyNames);
+        try (JsonParser p = factory.createParser(payload.document);
+             JsonParserWrapper parser = new JsonParserWrapper(p)) {
+            JsonToken token = parser.nextToken();
+            while (token != null) {
+                context = validator.validate(context, parser);
+                token = parser.nextToken();
+            }
+        }
+        BytesPerTokenProfiler.tokens(tokens);
+        return context.hasErrors();
+    }
+
+    @Benchmark
+    public boolean compiledSchemaLoop(Payload payload) throws IOException {
+        context.reset();
+        try (JsonParser p = factory.createParser(payload.document);
+             JsonParserWrapper parser = new JsonParserWrapper(p)) {
+            new StreamValidator<>(schema).validate(context, parser);
+        }
+        BytesPerTokenProfiler.tokens(tokens);
+        return context.hasErrors();
+    }
+
+    @Benchmark
+    public boolean compiledSchemaParserTokenLoop(Payload payload) throws IOException {
+        context.reset();
+        try (JsonParser parser = factory.createParser(payload.document)) {
+            new StreamValidator<>(schema).validate(context, parser);
+        }
+        BytesPerTokenProfiler.tokens(tokens);
+        return context.hasErrors();
+    }
+
+    @Benchmark
+    public boolean pooledSchemaLoop(Payload payload) throws IOException {
+        try (ValidationPool.Lease<CompositeValidator.ValidationContext> lease = pool.acquire()) {
+            boolean hasErrors = lease.validate(payload.document, 0, payload.document.length).hasErrors();
+            BytesPerTokenProfiler.tokens(tokens);
+            return hasErrors;
+        }
+    }
+
+    @Benchmark
+    public boolean compiledSchemaTokenizerLoop(Payload payload) throws IOException {
+        context.reset();
+        tokenizer.reset(payload.document, 0, payload.document.length);
+        new StreamValidator<>(schema).validate(context, tokenizer);
+        BytesPerTokenProfiler.tokens(tokens);
+        return context.hasErrors();
+    }
+
+}
@@ -0,0 +1,30 @@
+plugins {
+    java
+    application
+}
+
+group = "net.golikov"
+version = "0.1-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    val jacksonVersion = "2.14.3"
+    implementation(project(":validation"))
+    implementation(project(":json-schema-parse"))
+    implementation("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
+    implementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
+}
+
+application {
+    mainClass.set("net.golikov.json.schema.stream.cli.ValidateCommand")
+    applicationName = "json-schema-validate"
+}
+
+tasks.getByName<Test>("test") {
+    useJUnitPlatform()
+}
@@ -0,0 +1,57 @@
+package net.golikov.json.schema.stream.cli;
+
+/**
+ * Fixed size histogram of durations in nanoseconds with logarithmic buckets, each split into 32
+ * linear ones, so percentiles are within about 3% regardless of the number of recorded values.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    private long count;
+
+    void record(long nanos) {
+        counts[index(Math.max(nanos, 0))]++;
+        count++;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return highest value of the bucket the percentile falls into, or 0 if nothing is recorded
+     */
+    long percentile(double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return lowestValue(i + 1) - 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+}
@@ -0,0 +1,109 @@
+package net.golikov.json.schema.stream.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed command line arguments of {@link ValidateCommand}.
+ */
+final class Options {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: json-schema-validate --schema <file> [--threads <n>] [--ndjson] <file|directory|->...",
+            "  --schema <file>   JSON schema to validate against",
+            "  --threads <n>     number of worker threads, available processors by default",
+            "  --ndjson          treat all inputs as newline-delimited JSON; files named *.ndjson",
+            "                    or *.jsonl always are",
+            "Directories are searched for *.json, *.ndjson and *.jsonl files, '-' reads stdin.",
+            "Exit status is 0 if all documents are valid, 1 if some are invalid or malformed and 2",
+            "on usage, schema or I/O errors.");
+
+    private final Path schema;
+    private final int threads;
+    private final boolean ndjson;
+    private final List<String> inputs;
+
+    private Options(Path schema, int threads, boolean ndjson, List<String> inputs) {
+        this.schema = schema;
+        this.threads = threads;
+        this.ndjson = ndjson;
+        this.inputs = inputs;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    static Options parse(String... args) {
+        Path schema = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean ndjson = false;
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--schema":
+                    schema = Paths.get(value(args, ++i, "--schema"));
+                    break;
+                case "--threads":
+                    threads = threads(value(args, ++i, "--threads"));
+                    break;
+                case "--ndjson":
+                    ndjson = true;
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    inputs.add(args[i]);
+            }
+        }
+        if (schema == null) {
+            throw new IllegalArgumentException("Missing --schema");
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No inputs to validate");
+        }
+        return new Options(schema, threads, ndjson, Collections.unmodifiableList(inputs));
+    }
+
+    Path getSchema() {
+        return schema;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    boolean isNdjson() {
+        return ndjson;
+    }
+
+    /**
+     * @return files, directories and {@code -} for stdin in command line order
+     */
+    List<String> getInputs() {
+        return inputs;
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + option);
+        }
+        return args[i];
+    }
+
+    private static int threads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--threads must be a positive integer, got " + value);
+    }
+
+}
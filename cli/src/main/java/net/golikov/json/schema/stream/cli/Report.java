@@ -0,0 +1,86 @@
+package net.golikov.json.schema.stream.cli;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counters of a validation run: documents, bytes, per-document latency and, where the JVM
+ * supports it, bytes allocated by all live threads. Not thread-safe.
+ */
+final class Report {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final long startedNanos = System.nanoTime();
+    private final long allocatedBefore = allocatedBytes();
+    private long invalidDocuments;
+    private long bytes;
+    private long elapsedNanos;
+    private long allocated = -1;
+
+    void document(long length, long nanos, boolean invalid) {
+        latencies.record(nanos);
+        bytes += length;
+        if (invalid) {
+            invalidDocuments++;
+        }
+    }
+
+    /**
+     * Stops the clock and the allocation counter; worker threads should still be alive.
+     */
+    void finish() {
+        elapsedNanos = System.nanoTime() - startedNanos;
+        long allocatedAfter = allocatedBytes();
+        allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+    }
+
+    long getDocuments() {
+        return latencies.getCount();
+    }
+
+    long getInvalidDocuments() {
+        return invalidDocuments;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("documents: %d, invalid: %d, %.1f MB in %.3f s%n",
+                getDocuments(), invalidDocuments, bytes / MEGABYTE, seconds);
+        out.printf("throughput: %.1f MB/s, %.1f documents/s%n",
+                rate(bytes / MEGABYTE, seconds), rate(getDocuments(), seconds));
+        out.printf("latency per document: p50 %.1f us, p99 %.1f us%n",
+                latencies.percentile(50) / 1e3, latencies.percentile(99) / 1e3);
+        if (allocated >= 0) {
+            out.printf("allocation rate: %.1f MB/s%n", rate(allocated / MEGABYTE, seconds));
+        } else {
+            out.println("allocation rate: not supported by this JVM");
+        }
+    }
+
+    private static double rate(double amount, double seconds) {
+        return seconds == 0 ? 0 : amount / seconds;
+    }
+
+    /**
+     * @return bytes allocated so far by threads that are alive now, or -1 if not supported
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+
+}
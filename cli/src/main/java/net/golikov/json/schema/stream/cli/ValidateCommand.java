@@ -0,0 +1,241 @@
+package net.golikov.json.schema.stream.cli;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.NdjsonValidator;
+import net.golikov.json.schema.stream.ValidationPool;
+import net.golikov.json.schema.stream.parse.ParseResult;
+import net.golikov.json.schema.stream.parse.SchemaCompiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point validating JSON files, directories, stdin and NDJSON against a
+ * schema file. Single-document files are validated in parallel, one file per task; NDJSON
+ * inputs are read one after another and validated in parallel chunks. Failures are printed to
+ * stdout as they are found, the throughput report to stderr.
+ */
+public class ValidateCommand {
+
+    static final int VALID = 0;
+    static final int INVALID = 1;
+    static final int ERROR = 2;
+
+    private static final String STDIN = "-";
+    private static final int NDJSON_CHUNK_SIZE = 1 << 20;
+
+    // exact numeric bounds, as the streaming compiler reads them
+    private final ObjectMapper mapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ValidateCommand(InputStream in, PrintStream out, PrintStream err) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(new ValidateCommand(System.in, System.out, System.err).run(args));
+    }
+
+    /**
+     * @return exit status
+     */
+    public int run(String... args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(Options.USAGE);
+            return ERROR;
+        }
+        CompiledSchema schema;
+        try {
+            ParseResult<CompiledSchema> compiled = new SchemaCompiler().compile(mapper.readTree(options.getSchema().toFile()));
+            if (compiled.getError().isPresent()) {
+                err.printf("%s: %s%n", options.getSchema(), compiled.getError().get());
+                return ERROR;
+            }
+            schema = compiled.getResult().get();
+        } catch (IOException e) {
+            err.printf("%s: %s%n", options.getSchema(), e.getMessage());
+            return ERROR;
+        }
+        List<Path> documents = new ArrayList<>();
+        List<Path> ndjson = new ArrayList<>();
+        boolean stdin = false;
+        try {
+            for (String input : options.getInputs()) {
+                if (input.equals(STDIN)) {
+                    stdin = true;
+                } else {
+                    for (Path file : files(Paths.get(input))) {
+                        (options.isNdjson() || isNdjson(file) ? ndjson : documents).add(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return ERROR;
+        }
+        return validate(schema, options, documents, ndjson, stdin);
+    }
+
+    private int validate(CompiledSchema schema, Options options, List<Path> documents, List<Path> ndjson,
+                         boolean stdin) {
+        Report report = new Report();
+        ValidationPool<CompositeValidator.ValidationContext> pool =
+                new ValidationPool<>(mapper.getFactory(), schema, options.getThreads());
+        ExecutorService executor = Executors.newFixedThreadPool(options.getThreads());
+        ForkJoinPool forkJoinPool = new ForkJoinPool(options.getThreads());
+        boolean errors = false;
+        try {
+            List<Future<DocumentResult>> results = new ArrayList<>();
+            for (Path file : documents) {
+                results.add(executor.submit(() -> validateDocument(pool, file)));
+            }
+            for (Future<DocumentResult> result : results) {
+                errors |= report(result.get(), report);
+            }
+            NdjsonValidator<CompositeValidator.ValidationContext> lines =
+                    new NdjsonValidator<>(mapper.getFactory(), schema, forkJoinPool, NDJSON_CHUNK_SIZE);
+            for (Path file : ndjson) {
+                try (InputStream input = Files.newInputStream(file)) {
+                    validateLines(lines, file.toString(), input, report);
+                } catch (IOException e) {
+                    err.printf("%s: %s%n", file, e.getMessage());
+                    errors = true;
+                }
+            }
+            if (stdin) {
+                if (options.isNdjson()) {
+                    validateLines(lines, "<stdin>", in, report);
+                } else {
+                    errors |= report(validateDocument(pool, "<stdin>", in.readAllBytes()), report);
+                }
+            }
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            errors = true;
+        } catch (ExecutionException e) {
+            err.println(e.getCause().toString());
+            errors = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors = true;
+        } finally {
+            report.finish();
+            executor.shutdownNow();
+            forkJoinPool.shutdownNow();
+        }
+        report.print(err);
+        return errors ? ERROR : report.getInvalidDocuments() > 0 ? INVALID : VALID;
+    }
+
+    private void validateLines(NdjsonValidator<CompositeValidator.ValidationContext> validator, String name,
+                               InputStream input, Report report) throws IOException {
+        validator.validate(input, line -> {
+            report.document(line.getLength(), line.getElapsedNanos(), line.hasErrors());
+            if (line.hasErrors()) {
+                out.printf("%s:%d: %s%n", name, line.getLineNumber(), line.getParseError().orElse("invalid"));
+            }
+        });
+    }
+
+    private static DocumentResult validateDocument(ValidationPool<CompositeValidator.ValidationContext> pool,
+                                                   Path file) {
+        try {
+            return validateDocument(pool, file.toString(), Files.readAllBytes(file));
+        } catch (IOException e) {
+            return new DocumentResult(file.toString(), 0, 0, false, null, e.getMessage());
+        }
+    }
+
+    private static DocumentResult validateDocument(ValidationPool<CompositeValidator.ValidationContext> pool,
+                                                   String name, byte[] document) {
+        long started = System.nanoTime();
+        try (ValidationPool.Lease<CompositeValidator.ValidationContext> lease = pool.acquire()) {
+            boolean invalid = lease.validate(document, 0, document.length).hasErrors();
+            return new DocumentResult(name, document.length, System.nanoTime() - started, invalid, null, null);
+        } catch (JsonProcessingException e) {
+            return new DocumentResult(name, document.length, System.nanoTime() - started, true,
+                    e.getOriginalMessage(), null);
+        } catch (IOException e) {
+            return new DocumentResult(name, document.length, 0, false, null, e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the document could not be read
+     */
+    private boolean report(DocumentResult result, Report report) {
+        if (result.ioError != null) {
+            err.printf("%s: %s%n", result.name, result.ioError);
+            return true;
+        }
+        report.document(result.length, result.nanos, result.invalid);
+        if (result.invalid) {
+            out.printf("%s: %s%n", result.name, result.parseError != null ? result.parseError : "invalid");
+        }
+        return false;
+    }
+
+    private static List<Path> files(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return List.of(input);
+        }
+        try (Stream<Path> files = Files.walk(input)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> isNdjson(file) || file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isNdjson(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    private static final class DocumentResult {
+
+        private final String name;
+        private final long length;
+        private final long nanos;
+        private final boolean invalid;
+        private final String parseError;
+        private final String ioError;
+
+        private DocumentResult(String name, long length, long nanos, boolean invalid, String parseError,
+                               String ioError) {
+            this.name = name;
+            this.length = length;
+            this.nanos = nanos;
+            this.invalid = invalid;
+            this.parseError = parseError;
+            this.ioError = ioError;
+        }
+
+    }
+
+}
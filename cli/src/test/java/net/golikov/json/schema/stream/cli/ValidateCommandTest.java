@@ -0,0 +1,102 @@
+package net.golikov.json.schema.stream.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidateCommandTest {
+
+    private static final String VALID = "{\"latitude\": 1, \"longitude\": 2}";
+    private static final String INVALID = "{\"latitude\": 1, \"location\": {\"longitude\": 2}}";
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void validatesFilesAndDirectories() throws IOException {
+        Path schema = write(directory.resolve("schema.txt"), "{\"required\": [\"latitude\", \"longitude\"]}");
+        Path documents = Files.createDirectory(directory.resolve("documents"));
+        write(documents.resolve("a.json"), VALID);
+        write(documents.resolve("b.json"), VALID);
+        write(documents.resolve("ignored.txt"), INVALID);
+        Path single = write(directory.resolve("single.json"), VALID);
+        assertEquals(ValidateCommand.VALID, run(null, "--schema", schema.toString(), "--threads", "2",
+                documents.toString(), single.toString()));
+        assertEquals("", output(out));
+        assertTrue(output(err).contains("documents: 3, invalid: 0"), output(err));
+        assertTrue(output(err).contains("MB/s"));
+        assertTrue(output(err).contains("p99"));
+        write(documents.resolve("c.json"), INVALID);
+        write(documents.resolve("d.json"), "{\"latitude\": ");
+        assertEquals(ValidateCommand.INVALID, run(null, "--schema", schema.toString(), documents.toString()));
+        assertTrue(output(out).contains(documents.resolve("c.json") + ": invalid"), output(out));
+        assertTrue(output(out).contains(documents.resolve("d.json") + ": Unexpected end-of-input"), output(out));
+        assertFalse(output(out).contains("a.json"));
+    }
+
+    @Test
+    public void validatesNdjsonAndStdin() throws IOException {
+        Path schema = write(directory.resolve("schema.json"), "{\"required\": [\"latitude\", \"longitude\"]}");
+        Path lines = write(directory.resolve("lines.jsonl"), VALID + "\n" + INVALID + "\n\n" + VALID + "\n");
+        assertEquals(ValidateCommand.INVALID, run(null, "--schema", schema.toString(), lines.toString()));
+        assertEquals(lines + ":2: invalid", output(out).trim());
+        assertTrue(output(err).contains("documents: 3, invalid: 1"), output(err));
+        assertEquals(ValidateCommand.VALID, run(VALID, "--schema", schema.toString(), "-"));
+        assertEquals(ValidateCommand.INVALID, run(VALID + "\n" + INVALID, "--schema", schema.toString(), "--ndjson", "-"));
+        assertEquals("<stdin>:2: invalid", output(out).trim());
+    }
+
+    @Test
+    public void readsExactNumericBounds() throws IOException {
+        Path schema = write(directory.resolve("schema.json"), "{\"maximum\": 0.10000000000000000001, \"minimum\": -1e400}");
+        Path valid = write(directory.resolve("valid.json"), "0.10000000000000000001");
+        Path invalid = write(directory.resolve("invalid.json"), "0.1000000000000000000101");
+        assertEquals(ValidateCommand.VALID, run(null, "--schema", schema.toString(), valid.toString()));
+        assertEquals(ValidateCommand.INVALID, run(null, "--schema", schema.toString(), invalid.toString()));
+    }
+
+    @Test
+    public void failsOnUsageAndSchemaErrors() throws IOException {
+        Path schema = write(directory.resolve("schema.json"), "{\"required\": \"latitude\"}");
+        Path document = write(directory.resolve("document.json"), VALID);
+        assertEquals(ValidateCommand.ERROR, run(null, document.toString()));
+        assertTrue(output(err).contains("Usage"));
+        assertEquals(ValidateCommand.ERROR, run(null, "--schema", schema.toString(), "--threads", "0", document.toString()));
+        assertEquals(ValidateCommand.ERROR, run(null, "--schema", schema.toString(), document.toString()));
+        assertTrue(output(err).startsWith(schema.toString()), output(err));
+        Path valid = write(directory.resolve("valid.json"), "{\"required\": [\"latitude\"]}");
+        assertEquals(ValidateCommand.ERROR, run(null, "--schema", valid.toString(),
+                directory.resolve("missing.json").toString()));
+    }
+
+    private int run(String stdin, String... args) {
+        out.reset();
+        err.reset();
+        InputStream in = new ByteArrayInputStream(stdin == null ? new byte[0] : stdin.getBytes(StandardCharsets.UTF_8));
+        return new ValidateCommand(in, new PrintStream(out, true), new PrintStream(err, true)).run(args);
+    }
+
+    private static String output(ByteArrayOutputStream stream) {
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
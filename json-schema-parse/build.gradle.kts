@@ -11,8 +11,9 @@ repositories {
 }
 
 dependencies {
-    val jacksonVersion = "2.8.9"
+    val jacksonVersion = "2.14.3"
     implementation(project(":validation"))
+    compileOnly("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
     compileOnly("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
     testImplementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
     testImplementation("org.assertj:assertj-core:3.21.0")
@@ -0,0 +1,36 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.CompiledSchema;
+
+public class AdditionalPropertiesJsonSchema {
+
+    static final String FIELD_NAME = "additionalProperties";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public AdditionalPropertiesJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    /**
+     * @return subschema of properties matching neither {@code properties} nor {@code patternProperties}
+     */
+    public ParseResult<CompiledSchema> readSchema(SchemaCompiler compiler) {
+        JsonNode additionalProperties = node.at(JSON_POINTER);
+        if (additionalProperties.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        ParseResult<CompiledSchema> schema = compiler.compile(additionalProperties);
+        if (schema.getError().isPresent()) {
+            return new ParseResult<>(invalidSchema(schema.getError().get()));
+        }
+        return schema;
+    }
+
+    static String invalidSchema(String error) {
+        return String.format("\"%s\" field contains invalid schema: %s", FIELD_NAME, error);
+    }
+
+}
@@ -0,0 +1,39 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.MultipleOf;
+
+import java.math.BigDecimal;
+
+public class MultipleOfJsonSchema {
+
+    static final String FIELD_NAME = "multipleOf";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public MultipleOfJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    public ParseResult<MultipleOf> readMultipleOf() {
+        JsonNode divisor = node.at(JSON_POINTER);
+        if (divisor.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        ParseResult<BigDecimal> value = NumberRangeJsonSchema.decimal(FIELD_NAME, divisor);
+        if (value.getError().isPresent()) {
+            return new ParseResult<>(value.getError().get());
+        }
+        return multipleOf(value.getResult().get());
+    }
+
+    static ParseResult<MultipleOf> multipleOf(BigDecimal divisor) {
+        if (divisor.signum() <= 0) {
+            return new ParseResult<>(String.format("\"%s\" field contains non-positive number %s",
+                    FIELD_NAME, divisor.stripTrailingZeros().toPlainString()));
+        }
+        return new ParseResult<>(new MultipleOf(divisor));
+    }
+
+}
@@ -0,0 +1,69 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads {@code minimum}, {@code exclusiveMinimum}, {@code maximum} and {@code exclusiveMaximum}
+ * bounds. Bounds are exact for trees read with
+ * {@link com.fasterxml.jackson.databind.DeserializationFeature#USE_BIG_DECIMAL_FOR_FLOATS};
+ * otherwise they are rounded to doubles, and bounds beyond the double range are errors.
+ */
+public class NumberRangeJsonSchema {
+
+    static final String MINIMUM_FIELD_NAME = "minimum";
+    static final String EXCLUSIVE_MINIMUM_FIELD_NAME = "exclusiveMinimum";
+    static final String MAXIMUM_FIELD_NAME = "maximum";
+    static final String EXCLUSIVE_MAXIMUM_FIELD_NAME = "exclusiveMaximum";
+    private final JsonNode node;
+
+    public NumberRangeJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    public ParseResult<BigDecimal> readMinimum() {
+        return readBound(MINIMUM_FIELD_NAME);
+    }
+
+    public ParseResult<BigDecimal> readExclusiveMinimum() {
+        return readBound(EXCLUSIVE_MINIMUM_FIELD_NAME);
+    }
+
+    public ParseResult<BigDecimal> readMaximum() {
+        return readBound(MAXIMUM_FIELD_NAME);
+    }
+
+    public ParseResult<BigDecimal> readExclusiveMaximum() {
+        return readBound(EXCLUSIVE_MAXIMUM_FIELD_NAME);
+    }
+
+    private ParseResult<BigDecimal> readBound(String fieldName) {
+        JsonNode bound = node.at(JsonPointer.compile("/" + fieldName));
+        if (bound.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        return decimal(fieldName, bound);
+    }
+
+    /**
+     * @return exact value of a number node, or an error for other nodes and for doubles
+     *   out of their range
+     */
+    static ParseResult<BigDecimal> decimal(String fieldName, JsonNode number) {
+        if (!number.isNumber()) {
+            return new ParseResult<>(notNumber(fieldName, number.getNodeType()));
+        }
+        if ((number.isDouble() || number.isFloat()) && !Double.isFinite(number.doubleValue())) {
+            return new ParseResult<>(String.format("\"%s\" field contains non-finite number %s",
+                    fieldName, number.asText()));
+        }
+        return new ParseResult<>(number.decimalValue());
+    }
+
+    static String notNumber(String fieldName, Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of number", fieldName, nodeType);
+    }
+
+}
@@ -1,6 +1,7 @@
 package net.golikov.json.schema.stream.parse;
 
 import java.util.Optional;
+import java.util.function.Function;
 
 public class ParseResult<T> {
     private T result = null;
@@ -24,4 +25,11 @@ public class ParseResult<T> {
     public Optional<String> getError() {
         return error;
     }
+
+    public <R> ParseResult<R> map(Function<? super T, ? extends R> mapper) {
+        if (error.isPresent()) {
+            return new ParseResult<>(error.get());
+        }
+        return result == null ? new ParseResult<>() : new ParseResult<>(mapper.apply(result));
+    }
 }
@@ -0,0 +1,43 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.StringPattern;
+
+import java.util.regex.PatternSyntaxException;
+
+public class PatternJsonSchema {
+
+    static final String FIELD_NAME = "pattern";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public PatternJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    public ParseResult<StringPattern> readPattern() {
+        JsonNode pattern = node.at(JSON_POINTER);
+        if (pattern.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        if (!pattern.isTextual()) {
+            return new ParseResult<>(notString(pattern.getNodeType()));
+        }
+        return pattern(pattern.textValue());
+    }
+
+    static String notString(Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of string", FIELD_NAME, nodeType);
+    }
+
+    static ParseResult<StringPattern> pattern(String pattern) {
+        try {
+            return new ParseResult<>(new StringPattern(pattern));
+        } catch (PatternSyntaxException e) {
+            return new ParseResult<>(String.format("\"%s\" field contains invalid pattern \"%s\": %s",
+                    FIELD_NAME, pattern, e.getDescription()));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.PropertyNameAutomaton;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.PatternSyntaxException;
+
+public class PatternPropertiesJsonSchema {
+
+    static final String FIELD_NAME = "patternProperties";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public PatternPropertiesJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    /**
+     * @return subschemas compiled with the compiler, by property name pattern in schema order
+     */
+    public ParseResult<Map<String, CompiledSchema>> readSchemas(SchemaCompiler compiler) {
+        JsonNode patternProperties = node.at(JSON_POINTER);
+        if (patternProperties.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        if (!patternProperties.isObject()) {
+            return new ParseResult<>(notObject(patternProperties.getNodeType()));
+        }
+        Map<String, CompiledSchema> schemas = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = patternProperties.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Optional<String> invalidPattern = invalidPattern(field.getKey());
+            if (invalidPattern.isPresent()) {
+                return new ParseResult<>(invalidPattern.get());
+            }
+            ParseResult<CompiledSchema> schema = compiler.compile(field.getValue());
+            if (schema.getError().isPresent()) {
+                return new ParseResult<>(invalidSchema(field.getKey(), schema.getError().get()));
+            }
+            schemas.put(field.getKey(), schema.getResult().get());
+        }
+        return new ParseResult<>(schemas);
+    }
+
+    static String notObject(Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of object", FIELD_NAME, nodeType);
+    }
+
+    static Optional<String> invalidPattern(String pattern) {
+        try {
+            PropertyNameAutomaton.checkPattern(pattern);
+            return Optional.empty();
+        } catch (PatternSyntaxException e) {
+            return Optional.of(String.format("\"%s\" field contains invalid pattern \"%s\": %s",
+                    FIELD_NAME, pattern, e.getDescription()));
+        }
+    }
+
+    static String invalidSchema(String pattern, String error) {
+        return String.format("\"%s\" field contains invalid schema of \"%s\": %s", FIELD_NAME, pattern, error);
+    }
+
+}
@@ -0,0 +1,53 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.CompiledSchema;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PropertiesJsonSchema {
+
+    static final String FIELD_NAME = "properties";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public PropertiesJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    /**
+     * @return subschemas compiled with the compiler, by property name in schema order
+     */
+    public ParseResult<Map<String, CompiledSchema>> readSchemas(SchemaCompiler compiler) {
+        JsonNode properties = node.at(JSON_POINTER);
+        if (properties.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        if (!properties.isObject()) {
+            return new ParseResult<>(notObject(properties.getNodeType()));
+        }
+        Map<String, CompiledSchema> schemas = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            ParseResult<CompiledSchema> schema = compiler.compile(field.getValue());
+            if (schema.getError().isPresent()) {
+                return new ParseResult<>(invalidSchema(field.getKey(), schema.getError().get()));
+            }
+            schemas.put(field.getKey(), schema.getResult().get());
+        }
+        return new ParseResult<>(schemas);
+    }
+
+    static String notObject(Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of object", FIELD_NAME, nodeType);
+    }
+
+    static String invalidSchema(String propertyName, String error) {
+        return String.format("\"%s\" field contains invalid schema of \"%s\": %s", FIELD_NAME, propertyName, error);
+    }
+
+}
@@ -6,12 +6,10 @@ import com.fasterxml.jackson.databind.node.JsonNodeType;
 import net.golikov.json.schema.stream.RequiredProperties;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class RequiredPropertiesJsonSchema {
 
-    private static final String FIELD_NAME = "required";
+    static final String FIELD_NAME = "required";
     private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
     private final JsonNode node;
 
@@ -20,13 +18,16 @@ public class RequiredPropertiesJsonSchema {
     }
 
     public ParseResult<RequiredProperties.ValidationContext> read() {
+        return readPropertyNames().map(RequiredProperties.ValidationContext::new);
+    }
+
+    public ParseResult<List<String>> readPropertyNames() {
         JsonNode required = node.at(JSON_POINTER);
         if (required.isMissingNode()) {
             return new ParseResult<>();
         }
         if (!required.isArray()) {
-            return new ParseResult<>(String.format("\"%s\" field contains %s instead of array",
-                    FIELD_NAME, required.getNodeType()));
+            return new ParseResult<>(notArray(required.getNodeType()));
         }
         List<JsonNodeType> notTextualNodeTypes = new ArrayList<>(0);
         List<String> requiredPropertyNames = new ArrayList<>();
@@ -37,27 +38,37 @@ public class RequiredPropertiesJsonSchema {
                 notTextualNodeTypes.add(jsonNode.getNodeType());
             }
         }
+        return propertyNames(requiredPropertyNames, notTextualNodeTypes);
+    }
+
+    static String notArray(Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of array", FIELD_NAME, nodeType);
+    }
+
+    static ParseResult<List<String>> propertyNames(List<String> requiredPropertyNames,
+                                                   List<?> notTextualNodeTypes) {
         if (!notTextualNodeTypes.isEmpty()) {
             return new ParseResult<>(String.format("\"%s\" field contains array, " +
                             "including %s node types instead of only strings",
                     FIELD_NAME, notTextualNodeTypes));
         }
-        List<String> duplicates = duplicates(requiredPropertyNames);
+        Set<String> duplicates = duplicates(requiredPropertyNames);
         if (!duplicates.isEmpty()) {
             return new ParseResult<>(String.format("\"%s\" field contains duplicates: %s",
                     FIELD_NAME, duplicates));
         }
-        return new ParseResult<>(new RequiredProperties.ValidationContext(requiredPropertyNames));
+        return new ParseResult<>(requiredPropertyNames);
     }
 
-    private List<String> duplicates(List<String> requiredPropertyNames) {
-        return requiredPropertyNames.stream()
-                .collect(Collectors.groupingBy(Function.identity()))
-                .values()
-                .stream()
-                .filter(l -> l.size() > 1)
-                .map(l -> l.get(0))
-                .collect(Collectors.toList());
+    static Set<String> duplicates(List<String> requiredPropertyNames) {
+        Set<String> names = new HashSet<>(requiredPropertyNames.size() * 2);
+        Set<String> duplicates = new LinkedHashSet<>(0);
+        for (String name : requiredPropertyNames) {
+            if (!names.add(name)) {
+                duplicates.add(name);
+            }
+        }
+        return duplicates;
     }
 
 }
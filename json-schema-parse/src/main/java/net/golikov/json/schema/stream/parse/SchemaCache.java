@@ -0,0 +1,245 @@
+package net.golikov.json.schema.stream.parse;
+
+import net.golikov.json.schema.stream.CompiledSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of compiled schemas keyed by schema URI or {@link #contentKey(byte[]) content hash}.
+ * <p>
+ * Hits are lock-free and only set a reference bit of the entry. Once the total weight exceeds
+ * the maximum, entries are evicted in CLOCK order, an approximation of least recently used:
+ * a hand sweeps a ring of entries in insertion order, clearing reference bits and evicting the
+ * first entry not referenced since the last sweep, so an eviction takes amortized constant
+ * time and hits never contend on shared state. Concurrent misses on the same
+ * key share one load, so a schema is compiled once however many requests ask for it. Only
+ * successfully compiled schemas are cached; errors are returned to every waiting caller.
+ */
+public class SchemaCache<K> {
+
+    private final ConcurrentHashMap<K, Node<K>> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<ParseResult<CompiledSchema>>> loading =
+            new ConcurrentHashMap<>();
+    private final long maximumWeight;
+    private final ToLongFunction<CompiledSchema> weigher;
+    private final AtomicLong weight = new AtomicLong();
+    private final Object evictionLock = new Object();
+    /**
+     * Next entry of the ring to be examined, guarded by the eviction lock.
+     */
+    private Node<K> hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    public SchemaCache(int maximumSize) {
+        this(maximumSize, schema -> 1);
+    }
+
+    public SchemaCache(long maximumWeight, ToLongFunction<CompiledSchema> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return hex encoded SHA-256 of the schema, usable as a key for schemas without a stable URI
+     */
+    public static String contentKey(byte[] schema) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(schema);
+            byte[] hex = new byte[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = (byte) Character.forDigit((digest[i] >> 4) & 0xF, 16);
+                hex[2 * i + 1] = (byte) Character.forDigit(digest[i] & 0xF, 16);
+            }
+            return new String(hex, StandardCharsets.US_ASCII);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public ParseResult<CompiledSchema> get(K key, Function<? super K, ParseResult<CompiledSchema>> loader) {
+        Node<K> node = nodes.get(key);
+        if (node != null) {
+            hits.increment();
+            if (!node.referenced) {
+                node.referenced = true;
+            }
+            return node.schema;
+        }
+        misses.increment();
+        CompletableFuture<ParseResult<CompiledSchema>> load = new CompletableFuture<>();
+        CompletableFuture<ParseResult<CompiledSchema>> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            node = nodes.get(key);
+            ParseResult<CompiledSchema> schema = node != null ? node.schema : load(key, loader);
+            load.complete(schema);
+            return schema;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    public void invalidate(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            weight.addAndGet(-node.weight);
+            synchronized (evictionLock) {
+                unlink(node);
+            }
+        }
+    }
+
+    public long size() {
+        return nodes.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), loadFailures.sum());
+    }
+
+    private ParseResult<CompiledSchema> load(K key, Function<? super K, ParseResult<CompiledSchema>> loader) {
+        ParseResult<CompiledSchema> schema = loader.apply(key);
+        if (!schema.getResult().isPresent()) {
+            loadFailures.increment();
+            return schema;
+        }
+        Node<K> node = new Node<>(key, schema, weigher.applyAsLong(schema.getResult().get()));
+        Node<K> previous = nodes.put(key, node);
+        weight.addAndGet(node.weight - (previous == null ? 0 : previous.weight));
+        synchronized (evictionLock) {
+            if (previous != null) {
+                unlink(previous);
+            }
+            // a node invalidated or replaced before getting here never joins the ring
+            if (nodes.get(key) == node) {
+                link(node);
+            }
+            evict();
+        }
+        return schema;
+    }
+
+    /**
+     * Sweeps the ring until the total weight is within the maximum.
+     */
+    private void evict() {
+        while (weight.get() > maximumWeight && hand != null) {
+            Node<K> node = hand;
+            if (node.referenced) {
+                node.referenced = false;
+                hand = node.next;
+            } else {
+                unlink(node);
+                if (nodes.remove(node.key, node)) {
+                    weight.addAndGet(-node.weight);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the node right behind the hand, so that it is examined last.
+     */
+    private void link(Node<K> node) {
+        if (hand == null) {
+            node.next = node;
+            node.previous = node;
+            hand = node;
+        } else {
+            node.next = hand;
+            node.previous = hand.previous;
+            hand.previous.next = node;
+            hand.previous = node;
+        }
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.next == null) {
+            return;
+        }
+        if (node.next == node) {
+            hand = null;
+        } else {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            if (hand == node) {
+                hand = node.next;
+            }
+        }
+        node.next = null;
+        node.previous = null;
+    }
+
+    private static final class Node<K> {
+
+        private final K key;
+        private final ParseResult<CompiledSchema> schema;
+        private final long weight;
+        private volatile boolean referenced;
+        // ring links, guarded by the eviction lock; null while the node is not in the ring
+        private Node<K> next;
+        private Node<K> previous;
+
+        private Node(K key, ParseResult<CompiledSchema> schema, long weight) {
+            this.key = key;
+            this.schema = schema;
+            this.weight = weight;
+        }
+
+    }
+
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long loadFailures;
+
+        private Stats(long hits, long misses, long evictions, long loadFailures) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.loadFailures = loadFailures;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1 : (double) hits / requests;
+        }
+
+    }
+
+}
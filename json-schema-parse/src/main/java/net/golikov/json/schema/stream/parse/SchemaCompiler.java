@@ -0,0 +1,152 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import net.golikov.json.schema.stream.AllowedTypes;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.MultipleOf;
+import net.golikov.json.schema.stream.NumberRange;
+import net.golikov.json.schema.stream.ObjectProperties;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StringLength;
+import net.golikov.json.schema.stream.StringPattern;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles a schema tree into an immutable {@link CompiledSchema}. The result holds no
+ * per-document state, so a schema is compiled once and shared by all validating threads.
+ * The {@code type} keyword goes first, so that a value of a wrong type fails on its first token;
+ * subschemas of {@code properties}, {@code patternProperties} and {@code additionalProperties}
+ * are compiled recursively. String length goes before the {@code pattern} search, numeric bounds before {@code multipleOf}.
+ * Boolean schemas {@code true} and {@code false} accept and reject every value.
+ */
+public class SchemaCompiler {
+
+    public ParseResult<CompiledSchema> compile(JsonNode schema) {
+        if (schema.isBoolean()) {
+            return new ParseResult<>(booleanSchema(schema.booleanValue()));
+        }
+        if (!schema.isObject()) {
+            return new ParseResult<>(notSchema(schema.getNodeType()));
+        }
+        List<KeywordValidator<?>> keywords = new ArrayList<>();
+        ParseResult<List<AllowedTypes.Type>> type = new TypeJsonSchema(schema).readTypes();
+        if (type.getError().isPresent()) {
+            return new ParseResult<>(type.getError().get());
+        }
+        type.getResult().ifPresent(types -> keywords.add(new AllowedTypes(types)));
+        ParseResult<List<String>> required = new RequiredPropertiesJsonSchema(schema).readPropertyNames();
+        if (required.getError().isPresent()) {
+            return new ParseResult<>(required.getError().get());
+        }
+        required.getResult().ifPresent(names -> keywords.add(new ObjectScopedRequiredProperties(names)));
+        ParseResult<Map<String, CompiledSchema>> properties = new PropertiesJsonSchema(schema).readSchemas(this);
+        if (properties.getError().isPresent()) {
+            return new ParseResult<>(properties.getError().get());
+        }
+        ParseResult<Map<String, CompiledSchema>> patternProperties =
+                new PatternPropertiesJsonSchema(schema).readSchemas(this);
+        if (patternProperties.getError().isPresent()) {
+            return new ParseResult<>(patternProperties.getError().get());
+        }
+        ParseResult<CompiledSchema> additionalProperties = new AdditionalPropertiesJsonSchema(schema).readSchema(this);
+        if (additionalProperties.getError().isPresent()) {
+            return new ParseResult<>(additionalProperties.getError().get());
+        }
+        objectProperties(properties, patternProperties, additionalProperties).ifPresent(keywords::add);
+        StringLengthJsonSchema stringLength = new StringLengthJsonSchema(schema);
+        ParseResult<Long> minLength = stringLength.readMinLength();
+        if (minLength.getError().isPresent()) {
+            return new ParseResult<>(minLength.getError().get());
+        }
+        ParseResult<Long> maxLength = stringLength.readMaxLength();
+        if (maxLength.getError().isPresent()) {
+            return new ParseResult<>(maxLength.getError().get());
+        }
+        stringLength(minLength, maxLength).ifPresent(keywords::add);
+        ParseResult<StringPattern> pattern = new PatternJsonSchema(schema).readPattern();
+        if (pattern.getError().isPresent()) {
+            return new ParseResult<>(pattern.getError().get());
+        }
+        pattern.getResult().ifPresent(keywords::add);
+        NumberRangeJsonSchema numberRange = new NumberRangeJsonSchema(schema);
+        ParseResult<BigDecimal> minimum = numberRange.readMinimum();
+        if (minimum.getError().isPresent()) {
+            return new ParseResult<>(minimum.getError().get());
+        }
+        ParseResult<BigDecimal> exclusiveMinimum = numberRange.readExclusiveMinimum();
+        if (exclusiveMinimum.getError().isPresent()) {
+            return new ParseResult<>(exclusiveMinimum.getError().get());
+        }
+        ParseResult<BigDecimal> maximum = numberRange.readMaximum();
+        if (maximum.getError().isPresent()) {
+            return new ParseResult<>(maximum.getError().get());
+        }
+        ParseResult<BigDecimal> exclusiveMaximum = numberRange.readExclusiveMaximum();
+        if (exclusiveMaximum.getError().isPresent()) {
+            return new ParseResult<>(exclusiveMaximum.getError().get());
+        }
+        numberRange(minimum, exclusiveMinimum, maximum, exclusiveMaximum).ifPresent(keywords::add);
+        ParseResult<MultipleOf> multipleOf = new MultipleOfJsonSchema(schema).readMultipleOf();
+        if (multipleOf.getError().isPresent()) {
+            return new ParseResult<>(multipleOf.getError().get());
+        }
+        multipleOf.getResult().ifPresent(keywords::add);
+        return new ParseResult<>(new CompiledSchema(keywords));
+    }
+
+    static String notSchema(Object nodeType) {
+        return String.format("schema is %s instead of object or boolean", nodeType);
+    }
+
+    static CompiledSchema booleanSchema(boolean value) {
+        return new CompiledSchema(value ? Collections.emptyList()
+                : Collections.singletonList(new AllowedTypes(Collections.emptyList())));
+    }
+
+    /**
+     * @return keyword of the string length limits, if the schema has any
+     */
+    static Optional<StringLength> stringLength(ParseResult<Long> minLength, ParseResult<Long> maxLength) {
+        if (!minLength.getResult().isPresent() && !maxLength.getResult().isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new StringLength(minLength.getResult().orElse(0L),
+                maxLength.getResult().orElse(Long.MAX_VALUE)));
+    }
+
+    /**
+     * @return keyword of the numeric bounds, if the schema has any
+     */
+    static Optional<NumberRange> numberRange(ParseResult<BigDecimal> minimum, ParseResult<BigDecimal> exclusiveMinimum,
+                                             ParseResult<BigDecimal> maximum, ParseResult<BigDecimal> exclusiveMaximum) {
+        if (!minimum.getResult().isPresent() && !exclusiveMinimum.getResult().isPresent()
+                && !maximum.getResult().isPresent() && !exclusiveMaximum.getResult().isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new NumberRange(minimum.getResult().orElse(null), exclusiveMinimum.getResult().orElse(null),
+                maximum.getResult().orElse(null), exclusiveMaximum.getResult().orElse(null)));
+    }
+
+    /**
+     * @return keyword of the property subschemas, if the schema has any
+     */
+    static Optional<ObjectProperties> objectProperties(ParseResult<Map<String, CompiledSchema>> properties,
+                                                       ParseResult<Map<String, CompiledSchema>> patternProperties,
+                                                       ParseResult<CompiledSchema> additionalProperties) {
+        if (!properties.getResult().isPresent() && !patternProperties.getResult().isPresent()
+                && !additionalProperties.getResult().isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ObjectProperties(properties.getResult().orElse(Collections.emptyMap()),
+                patternProperties.getResult().orElse(Collections.emptyMap()),
+                additionalProperties.getResult().orElse(null)));
+    }
+
+}
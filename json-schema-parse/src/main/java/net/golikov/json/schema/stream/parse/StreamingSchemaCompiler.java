@@ -0,0 +1,285 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.AllowedTypes;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.MultipleOf;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StringPattern;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiles a schema straight from a parser token stream, with jackson-core only. Produces
+ * the same schemas and errors as {@link SchemaCompiler} given trees read with big decimals for
+ * floats, without building a tree; values of unknown keywords are skipped.
+ */
+public class StreamingSchemaCompiler {
+
+    /**
+     * Reads one schema from the parser, which is left at the end of it.
+     *
+     * @throws IOException if the schema is not well-formed JSON
+     */
+    public ParseResult<CompiledSchema> compile(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return new ParseResult<>(SchemaCompiler.booleanSchema(token == JsonToken.VALUE_TRUE));
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return new ParseResult<>(SchemaCompiler.notSchema(nodeType(token)));
+        }
+        ParseResult<List<AllowedTypes.Type>> type = new ParseResult<>();
+        ParseResult<List<String>> required = new ParseResult<>();
+        ParseResult<Map<String, CompiledSchema>> properties = new ParseResult<>();
+        ParseResult<Map<String, CompiledSchema>> patternProperties = new ParseResult<>();
+        ParseResult<CompiledSchema> additionalProperties = new ParseResult<>();
+        ParseResult<Long> minLength = new ParseResult<>();
+        ParseResult<Long> maxLength = new ParseResult<>();
+        ParseResult<StringPattern> pattern = new ParseResult<>();
+        ParseResult<BigDecimal> minimum = new ParseResult<>();
+        ParseResult<BigDecimal> exclusiveMinimum = new ParseResult<>();
+        ParseResult<BigDecimal> maximum = new ParseResult<>();
+        ParseResult<BigDecimal> exclusiveMaximum = new ParseResult<>();
+        ParseResult<MultipleOf> multipleOf = new ParseResult<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String keyword = parser.getCurrentName();
+            parser.nextToken();
+            if (RequiredPropertiesJsonSchema.FIELD_NAME.equals(keyword)) {
+                required = readPropertyNames(parser);
+            } else if (TypeJsonSchema.FIELD_NAME.equals(keyword)) {
+                type = readTypes(parser);
+            } else if (PropertiesJsonSchema.FIELD_NAME.equals(keyword)) {
+                properties = readSchemas(parser, PropertiesJsonSchema::notObject,
+                        name -> Optional.empty(), PropertiesJsonSchema::invalidSchema);
+            } else if (PatternPropertiesJsonSchema.FIELD_NAME.equals(keyword)) {
+                patternProperties = readSchemas(parser, PatternPropertiesJsonSchema::notObject,
+                        PatternPropertiesJsonSchema::invalidPattern, PatternPropertiesJsonSchema::invalidSchema);
+            } else if (AdditionalPropertiesJsonSchema.FIELD_NAME.equals(keyword)) {
+                additionalProperties = readSchema(parser);
+            } else if (StringLengthJsonSchema.MIN_FIELD_NAME.equals(keyword)) {
+                minLength = readLength(parser, keyword);
+            } else if (StringLengthJsonSchema.MAX_FIELD_NAME.equals(keyword)) {
+                maxLength = readLength(parser, keyword);
+            } else if (PatternJsonSchema.FIELD_NAME.equals(keyword)) {
+                pattern = readPattern(parser);
+            } else if (NumberRangeJsonSchema.MINIMUM_FIELD_NAME.equals(keyword)) {
+                minimum = readBound(parser, keyword);
+            } else if (NumberRangeJsonSchema.EXCLUSIVE_MINIMUM_FIELD_NAME.equals(keyword)) {
+                exclusiveMinimum = readBound(parser, keyword);
+            } else if (NumberRangeJsonSchema.MAXIMUM_FIELD_NAME.equals(keyword)) {
+                maximum = readBound(parser, keyword);
+            } else if (NumberRangeJsonSchema.EXCLUSIVE_MAXIMUM_FIELD_NAME.equals(keyword)) {
+                exclusiveMaximum = readBound(parser, keyword);
+            } else if (MultipleOfJsonSchema.FIELD_NAME.equals(keyword)) {
+                ParseResult<BigDecimal> divisor = readBound(parser, keyword);
+                multipleOf = divisor.getError().isPresent() ? new ParseResult<>(divisor.getError().get())
+                        : MultipleOfJsonSchema.multipleOf(divisor.getResult().get());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (type.getError().isPresent()) {
+            return new ParseResult<>(type.getError().get());
+        }
+        if (required.getError().isPresent()) {
+            return new ParseResult<>(required.getError().get());
+        }
+        if (properties.getError().isPresent()) {
+            return new ParseResult<>(properties.getError().get());
+        }
+        if (patternProperties.getError().isPresent()) {
+            return new ParseResult<>(patternProperties.getError().get());
+        }
+        if (additionalProperties.getError().isPresent()) {
+            return new ParseResult<>(additionalProperties.getError().get());
+        }
+        if (minLength.getError().isPresent()) {
+            return new ParseResult<>(minLength.getError().get());
+        }
+        if (maxLength.getError().isPresent()) {
+            return new ParseResult<>(maxLength.getError().get());
+        }
+        if (pattern.getError().isPresent()) {
+            return new ParseResult<>(pattern.getError().get());
+        }
+        if (minimum.getError().isPresent()) {
+            return new ParseResult<>(minimum.getError().get());
+        }
+        if (exclusiveMinimum.getError().isPresent()) {
+            return new ParseResult<>(exclusiveMinimum.getError().get());
+        }
+        if (maximum.getError().isPresent()) {
+            return new ParseResult<>(maximum.getError().get());
+        }
+        if (exclusiveMaximum.getError().isPresent()) {
+            return new ParseResult<>(exclusiveMaximum.getError().get());
+        }
+        if (multipleOf.getError().isPresent()) {
+            return new ParseResult<>(multipleOf.getError().get());
+        }
+        List<KeywordValidator<?>> keywords = new ArrayList<>();
+        type.getResult().ifPresent(types -> keywords.add(new AllowedTypes(types)));
+        required.getResult().ifPresent(names -> keywords.add(new ObjectScopedRequiredProperties(names)));
+        SchemaCompiler.objectProperties(properties, patternProperties, additionalProperties).ifPresent(keywords::add);
+        SchemaCompiler.stringLength(minLength, maxLength).ifPresent(keywords::add);
+        pattern.getResult().ifPresent(keywords::add);
+        SchemaCompiler.numberRange(minimum, exclusiveMinimum, maximum, exclusiveMaximum).ifPresent(keywords::add);
+        multipleOf.getResult().ifPresent(keywords::add);
+        return new ParseResult<>(new CompiledSchema(keywords));
+    }
+
+    private static ParseResult<List<String>> readPropertyNames(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(RequiredPropertiesJsonSchema.notArray(nodeType));
+        }
+        List<String> notTextualNodeTypes = new ArrayList<>(0);
+        List<String> requiredPropertyNames = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                requiredPropertyNames.add(parser.getText());
+            } else {
+                notTextualNodeTypes.add(nodeType(token));
+                parser.skipChildren();
+            }
+        }
+        return RequiredPropertiesJsonSchema.propertyNames(requiredPropertyNames, notTextualNodeTypes);
+    }
+
+    /**
+     * Reads an object of subschemas by property name or pattern, reporting errors of a keyword.
+     */
+    private ParseResult<Map<String, CompiledSchema>> readSchemas(JsonParser parser,
+                                                                 Function<String, String> notObject,
+                                                                 Function<String, Optional<String>> invalidName,
+                                                                 BiFunction<String, String, String> invalidSchema)
+            throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(notObject.apply(nodeType));
+        }
+        Map<String, CompiledSchema> schemas = new LinkedHashMap<>();
+        String error = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String propertyName = parser.getCurrentName();
+            parser.nextToken();
+            if (error == null) {
+                error = invalidName.apply(propertyName).orElse(null);
+            }
+            if (error != null) {
+                parser.skipChildren();
+                continue;
+            }
+            ParseResult<CompiledSchema> schema = compile(parser);
+            if (schema.getError().isPresent()) {
+                parser.skipChildren();
+                error = invalidSchema.apply(propertyName, schema.getError().get());
+            } else {
+                schemas.put(propertyName, schema.getResult().get());
+            }
+        }
+        return error != null ? new ParseResult<>(error) : new ParseResult<>(schemas);
+    }
+
+    private ParseResult<CompiledSchema> readSchema(JsonParser parser) throws IOException {
+        ParseResult<CompiledSchema> schema = compile(parser);
+        if (schema.getError().isPresent()) {
+            parser.skipChildren();
+            return new ParseResult<>(AdditionalPropertiesJsonSchema.invalidSchema(schema.getError().get()));
+        }
+        return schema;
+    }
+
+    private static ParseResult<Long> readLength(JsonParser parser, String fieldName) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(StringLengthJsonSchema.notNonNegativeInteger(fieldName, nodeType));
+        }
+        return StringLengthJsonSchema.length(fieldName, parser.getBigIntegerValue());
+    }
+
+    private static ParseResult<StringPattern> readPattern(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(PatternJsonSchema.notString(nodeType));
+        }
+        return PatternJsonSchema.pattern(parser.getText());
+    }
+
+    private static ParseResult<BigDecimal> readBound(JsonParser parser, String fieldName) throws IOException {
+        if (!parser.currentToken().isNumeric()) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(NumberRangeJsonSchema.notNumber(fieldName, nodeType));
+        }
+        return new ParseResult<>(parser.getDecimalValue());
+    }
+
+    private static ParseResult<List<AllowedTypes.Type>> readTypes(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return TypeJsonSchema.types(Collections.singletonList(parser.getText()), Collections.emptyList());
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            String nodeType = nodeType(parser.currentToken());
+            parser.skipChildren();
+            return new ParseResult<>(TypeJsonSchema.notStringOrArray(nodeType));
+        }
+        List<String> notTextualNodeTypes = new ArrayList<>(0);
+        List<String> typeNames = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                typeNames.add(parser.getText());
+            } else {
+                notTextualNodeTypes.add(nodeType(token));
+                parser.skipChildren();
+            }
+        }
+        return TypeJsonSchema.types(typeNames, notTextualNodeTypes);
+    }
+
+    /**
+     * @return name of the {@code JsonNodeType} a value starting with the token is read as
+     */
+    private static String nodeType(JsonToken token) {
+        if (token == null) {
+            return "MISSING";
+        }
+        switch (token) {
+            case START_OBJECT:
+                return "OBJECT";
+            case START_ARRAY:
+                return "ARRAY";
+            case VALUE_STRING:
+                return "STRING";
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return "NUMBER";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "BOOLEAN";
+            case VALUE_NULL:
+                return "NULL";
+            default:
+                return "POJO";
+        }
+    }
+
+}
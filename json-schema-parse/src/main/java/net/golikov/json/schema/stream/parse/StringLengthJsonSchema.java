@@ -0,0 +1,52 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigInteger;
+
+public class StringLengthJsonSchema {
+
+    static final String MIN_FIELD_NAME = "minLength";
+    static final String MAX_FIELD_NAME = "maxLength";
+    private static final JsonPointer MIN_JSON_POINTER = JsonPointer.compile("/" + MIN_FIELD_NAME);
+    private static final JsonPointer MAX_JSON_POINTER = JsonPointer.compile("/" + MAX_FIELD_NAME);
+    private final JsonNode node;
+
+    public StringLengthJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    public ParseResult<Long> readMinLength() {
+        return readLength(MIN_FIELD_NAME, node.at(MIN_JSON_POINTER));
+    }
+
+    /**
+     * @return largest number of code points, {@link Long#MAX_VALUE} for limits beyond it
+     */
+    public ParseResult<Long> readMaxLength() {
+        return readLength(MAX_FIELD_NAME, node.at(MAX_JSON_POINTER));
+    }
+
+    private static ParseResult<Long> readLength(String fieldName, JsonNode length) {
+        if (length.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        if (!length.isIntegralNumber()) {
+            return new ParseResult<>(notNonNegativeInteger(fieldName, length.getNodeType()));
+        }
+        return length(fieldName, length.bigIntegerValue());
+    }
+
+    static String notNonNegativeInteger(String fieldName, Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of non-negative integer", fieldName, nodeType);
+    }
+
+    static ParseResult<Long> length(String fieldName, BigInteger length) {
+        if (length.signum() < 0) {
+            return new ParseResult<>(String.format("\"%s\" field contains negative integer %s", fieldName, length));
+        }
+        return new ParseResult<>(length.bitLength() < Long.SIZE ? length.longValue() : Long.MAX_VALUE);
+    }
+
+}
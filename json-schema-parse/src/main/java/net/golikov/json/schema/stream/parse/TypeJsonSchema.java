@@ -0,0 +1,80 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import net.golikov.json.schema.stream.AllowedTypes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class TypeJsonSchema {
+
+    static final String FIELD_NAME = "type";
+    private static final JsonPointer JSON_POINTER = JsonPointer.compile("/" + FIELD_NAME);
+    private final JsonNode node;
+
+    public TypeJsonSchema(JsonNode node) {
+        this.node = node;
+    }
+
+    public ParseResult<List<AllowedTypes.Type>> readTypes() {
+        JsonNode type = node.at(JSON_POINTER);
+        if (type.isMissingNode()) {
+            return new ParseResult<>();
+        }
+        if (type.isTextual()) {
+            return types(Collections.singletonList(type.textValue()), Collections.emptyList());
+        }
+        if (!type.isArray()) {
+            return new ParseResult<>(notStringOrArray(type.getNodeType()));
+        }
+        List<JsonNodeType> notTextualNodeTypes = new ArrayList<>(0);
+        List<String> typeNames = new ArrayList<>();
+        for (JsonNode jsonNode : type) {
+            if (jsonNode.isTextual()) {
+                typeNames.add(jsonNode.textValue());
+            } else {
+                notTextualNodeTypes.add(jsonNode.getNodeType());
+            }
+        }
+        return types(typeNames, notTextualNodeTypes);
+    }
+
+    static String notStringOrArray(Object nodeType) {
+        return String.format("\"%s\" field contains %s instead of string or array", FIELD_NAME, nodeType);
+    }
+
+    static ParseResult<List<AllowedTypes.Type>> types(List<String> typeNames, List<?> notTextualNodeTypes) {
+        if (!notTextualNodeTypes.isEmpty()) {
+            return new ParseResult<>(String.format("\"%s\" field contains array, " +
+                            "including %s node types instead of only strings",
+                    FIELD_NAME, notTextualNodeTypes));
+        }
+        List<AllowedTypes.Type> types = new ArrayList<>(typeNames.size());
+        Set<String> unknown = new LinkedHashSet<>(0);
+        for (String typeName : typeNames) {
+            Optional<AllowedTypes.Type> type = AllowedTypes.Type.forKeyword(typeName);
+            if (type.isPresent()) {
+                types.add(type.get());
+            } else {
+                unknown.add(typeName);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            return new ParseResult<>(String.format("\"%s\" field contains unknown types: %s",
+                    FIELD_NAME, unknown));
+        }
+        Set<String> duplicates = RequiredPropertiesJsonSchema.duplicates(typeNames);
+        if (!duplicates.isEmpty()) {
+            return new ParseResult<>(String.format("\"%s\" field contains duplicates: %s",
+                    FIELD_NAME, duplicates));
+        }
+        return new ParseResult<>(types);
+    }
+
+}
@@ -0,0 +1,168 @@
+package net.golikov.json.schema.stream.parse;
+
+import net.golikov.json.schema.stream.CompiledSchema;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void compilesSchemaOnceAndCountsHits() {
+        SchemaCache<String> cache = new SchemaCache<>(10);
+        CompiledSchema first = cache.get("a", this::load).getResult().get();
+        assertThat(cache.get("a", this::load).getResult().get()).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1L);
+        assertThat(cache.stats().getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSchemas() {
+        SchemaCache<String> cache = new SchemaCache<>(2);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+        assertThat(cache.size()).isEqualTo(2L);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1L);
+        cache.get("a", this::load);
+        assertThat(loads.get()).isEqualTo(3);
+        cache.get("b", this::load);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsReferencedSchemasWhileManyOthersAreEvicted() {
+        SchemaCache<String> cache = new SchemaCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.get("hot", this::load);
+            cache.get("cold" + i, this::load);
+        }
+        assertThat(loads.get()).isEqualTo(10_001);
+        assertThat(cache.size()).isEqualTo(100L);
+        assertThat(cache.stats().getEvictions()).isEqualTo(9901L);
+    }
+
+    @Test
+    void invalidatedSchemasLeaveEvictionOrder() {
+        SchemaCache<String> cache = new SchemaCache<>(2);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.invalidate("a");
+        cache.get("c", this::load);
+        assertThat(cache.stats().getEvictions()).isEqualTo(0L);
+        cache.get("a", this::load);
+        assertThat(cache.size()).isEqualTo(2L);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1L);
+        cache.get("c", this::load);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void boundsTotalWeight() {
+        SchemaCache<String> cache = new SchemaCache<>(5, schema -> 2);
+        for (String key : new String[]{"a", "b", "c", "d"}) {
+            cache.get(key, this::load);
+        }
+        assertThat(cache.size()).isEqualTo(2L);
+        assertThat(cache.stats().getEvictions()).isEqualTo(2L);
+    }
+
+    @Test
+    void doesNotCacheErrors() {
+        SchemaCache<String> cache = new SchemaCache<>(10);
+        assertThat(cache.get("a", key -> new ParseResult<>("broken")).getError()).isNotEmpty();
+        assertThat(cache.get("a", this::load).getResult()).isNotEmpty();
+        assertThat(cache.stats().getLoadFailures()).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        SchemaCache<String> cache = new SchemaCache<>(10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompiledSchema>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("a", key -> {
+                started.countDown();
+                await(release);
+                return load(key);
+            }).getResult().get()));
+            started.await();
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get("a", this::load).getResult().get()));
+            }
+            release.countDown();
+            CompiledSchema schema = results.get(0).get();
+            for (Future<CompiledSchema> result : results) {
+                assertThat(result.get()).isSameAs(schema);
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void staysWithinMaximumUnderConcurrentLoads() throws Exception {
+        SchemaCache<String> cache = new SchemaCache<>(50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int seed = thread;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String key = "s" + (i * 31 + seed) % 200;
+                        if (i % 100 == 0) {
+                            cache.invalidate(key);
+                        } else {
+                            assertThat(cache.get(key, this::load).getResult()).isNotEmpty();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            assertThat(cache.size()).isLessThanOrEqualTo(50L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void contentKeyIsStableHash() {
+        byte[] schema = "{\"required\": [\"latitude\"]}".getBytes(StandardCharsets.UTF_8);
+        assertThat(SchemaCache.contentKey(schema)).isEqualTo(SchemaCache.contentKey(schema.clone()));
+        assertThat(SchemaCache.contentKey(schema).length()).isEqualTo(64);
+    }
+
+    private ParseResult<CompiledSchema> load(String key) {
+        loads.incrementAndGet();
+        return new ParseResult<>(new CompiledSchema(Collections.emptyList()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
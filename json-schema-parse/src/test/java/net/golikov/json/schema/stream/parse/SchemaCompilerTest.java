@@ -0,0 +1,177 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.required.RequiredPropertiesTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaCompilerTest {
+
+    @Test
+    void compilesSchemaWithoutRequiredField() throws IOException {
+        CompiledSchema schema = compile("empty.json").getResult().get();
+        assertThat(RequiredPropertiesTestCase.invalid(schema, schema.newContext())
+                .result().hasErrors()).isFalse();
+    }
+
+    @Test
+    void returnsErrorsOfInvalidKeywords() throws IOException {
+        assertThat(compile("not-array.json").getError()).isNotEmpty();
+        assertThat(compile("not-strings.json").getError()).isNotEmpty();
+        assertThat(compile("not-unique.json").getError()).isNotEmpty();
+    }
+
+    @Test
+    void returnsErrorIfSchemaIsNotAnObject() {
+        assertThat(new SchemaCompiler().compile(new ObjectMapper().getNodeFactory().arrayNode())
+                .getError()).isNotEmpty();
+    }
+
+    @Test
+    void compilesNestedPropertiesSchemas() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        CompiledSchema schema = new SchemaCompiler().compile(mapper.readTree("{\"properties\": {\"location\": "
+                + "{\"type\": \"object\", \"required\": [\"latitude\"], \"properties\": {\"latitude\": {\"type\": \"number\"}}}}}"))
+                .getResult().get();
+        StreamValidator<CompositeValidator.ValidationContext> loop = new StreamValidator<>(schema);
+        String[] valid = {"{}", "{\"location\": {\"latitude\": 1.5}}", "{\"other\": [1], \"location\": {\"latitude\": 1}}"};
+        String[] invalid = {"{\"location\": []}", "{\"location\": {}}", "{\"location\": {\"latitude\": \"1\"}}"};
+        for (String document : valid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isFalse();
+            }
+        }
+        for (String document : invalid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isTrue();
+            }
+        }
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"properties\": {\"a\": {\"type\": \"float\"}}}"))
+                .getError()).contains("\"properties\" field contains invalid schema of \"a\": "
+                + "\"type\" field contains unknown types: [float]");
+    }
+
+    @Test
+    void compilesPatternAndAdditionalPropertiesSchemas() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        CompiledSchema schema = new SchemaCompiler().compile(mapper.readTree("{\"properties\": {\"id\": true}, "
+                + "\"patternProperties\": {\"^x-\": {\"type\": \"string\"}}, \"additionalProperties\": false}"))
+                .getResult().get();
+        StreamValidator<CompositeValidator.ValidationContext> loop = new StreamValidator<>(schema);
+        String[] valid = {"{}", "{\"id\": [1], \"x-a\": \"b\"}", "[1]"};
+        String[] invalid = {"{\"x-a\": 1}", "{\"id\": 1, \"other\": null}"};
+        for (String document : valid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isFalse();
+            }
+        }
+        for (String document : invalid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isTrue();
+            }
+        }
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"patternProperties\": {\"(a\": {}}}"))
+                .getError()).contains("\"patternProperties\" field contains invalid pattern \"(a\": Unclosed group");
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"additionalProperties\": 1}"))
+                .getError()).contains("\"additionalProperties\" field contains invalid schema: "
+                + "schema is NUMBER instead of object or boolean");
+    }
+
+    @Test
+    void compilesStringKeywords() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        CompiledSchema schema = new SchemaCompiler().compile(mapper.readTree(
+                "{\"minLength\": 2, \"maxLength\": 3, \"pattern\": \"^[a-z]\"}")).getResult().get();
+        StreamValidator<CompositeValidator.ValidationContext> loop = new StreamValidator<>(schema);
+        String[] valid = {"\"ab\"", "\"a\ud83d\ude00\"", "\"abc\"", "12345", "[\"\"]"};
+        String[] invalid = {"\"a\"", "\"abcd\"", "\"Ab\"", "\"\ud83d\ude00a\""};
+        for (String document : valid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isFalse();
+            }
+        }
+        for (String document : invalid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isTrue();
+            }
+        }
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"maxLength\": -1}"))
+                .getError()).contains("\"maxLength\" field contains negative integer -1");
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"minLength\": \"1\"}"))
+                .getError()).contains("\"minLength\" field contains STRING instead of non-negative integer");
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"pattern\": \"[a\"}"))
+                .getError()).isNotEmpty();
+    }
+
+    @Test
+    void compilesNumberKeywords() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        CompiledSchema schema = new SchemaCompiler().compile(mapper.readTree(
+                "{\"minimum\": -1.5, \"exclusiveMaximum\": 10, \"multipleOf\": 0.5}")).getResult().get();
+        StreamValidator<CompositeValidator.ValidationContext> loop = new StreamValidator<>(schema);
+        String[] valid = {"-1.5", "0", "9.5", "2e0", "\"11\"", "[11]"};
+        String[] invalid = {"-2", "10", "10.0", "1.25", "-1.50000000000000000000001"};
+        for (String document : valid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isFalse();
+            }
+        }
+        for (String document : invalid) {
+            try (JsonParser parser = mapper.getFactory().createParser(document)) {
+                assertThat(loop.validate(schema.newContext(), parser).hasErrors()).isTrue();
+            }
+        }
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"maximum\": \"1\"}"))
+                .getError()).contains("\"maximum\" field contains STRING instead of number");
+        assertThat(new SchemaCompiler().compile(mapper.readTree("{\"multipleOf\": -0.50}"))
+                .getError()).contains("\"multipleOf\" field contains non-positive number -0.5");
+    }
+
+    @Test
+    void compiledSchemaIsReusedAcrossDocuments() throws IOException {
+        CompiledSchema schema = compile("schema.json").getResult().get();
+        CompositeValidator.ValidationContext context = schema.newContext();
+        assertThat(RequiredPropertiesTestCase.invalid(schema, context).result().hasErrors()).isTrue();
+        context.reset();
+        assertThat(RequiredPropertiesTestCase.valid(schema, context).result().hasErrors()).isFalse();
+    }
+
+    @Test
+    void compiledSchemaIsSharedBetweenThreads() throws Exception {
+        CompiledSchema schema = compile("schema.json").getResult().get();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                boolean valid = i % 2 == 0;
+                results.add(executor.submit(() -> (valid
+                        ? RequiredPropertiesTestCase.valid(schema, schema.newContext())
+                        : RequiredPropertiesTestCase.invalid(schema, schema.newContext()))
+                        .result().hasErrors() != valid));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ParseResult<CompiledSchema> compile(String fileName) throws IOException {
+        return new SchemaCompiler().compile(new ObjectMapper()
+                .readTree(RequiredPropertiesTestCase.class.getResource("parse/" + fileName)));
+    }
+
+}
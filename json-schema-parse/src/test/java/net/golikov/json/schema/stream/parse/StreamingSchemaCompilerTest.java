@@ -0,0 +1,120 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.required.RequiredPropertiesTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingSchemaCompilerTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    void compilesSchemaWithRequiredField() throws IOException {
+        CompiledSchema schema = compile("schema.json").getResult().get();
+        assertThat(RequiredPropertiesTestCase.invalid(schema, schema.newContext()).result().hasErrors()).isTrue();
+        assertThat(RequiredPropertiesTestCase.valid(schema, schema.newContext()).result().hasErrors()).isFalse();
+    }
+
+    @Test
+    void compilesSchemaWithoutRequiredField() throws IOException {
+        CompiledSchema schema = compile("empty.json").getResult().get();
+        assertThat(RequiredPropertiesTestCase.invalid(schema, schema.newContext()).result().hasErrors()).isFalse();
+    }
+
+    @Test
+    void returnsSameErrorsAsTreeCompiler() throws IOException {
+        for (String fileName : new String[]{"not-array.json", "not-strings.json", "not-unique.json"}) {
+            assertThat(compile(fileName).getError()).isNotEmpty().isEqualTo(new SchemaCompiler()
+                    .compile(new ObjectMapper().readTree(RequiredPropertiesTestCase.class.getResource("parse/" + fileName)))
+                    .getError());
+        }
+    }
+
+    @Test
+    void returnsErrorIfSchemaIsNotAnObject() throws IOException {
+        try (JsonParser parser = FACTORY.createParser("[]")) {
+            assertThat(new StreamingSchemaCompiler().compile(parser).getError())
+                    .contains("schema is ARRAY instead of object or boolean");
+        }
+    }
+
+    @Test
+    void compilesNestedSchemasAndLeavesParserAtEndOfSchema() throws IOException {
+        String schemas = "{\"properties\": {\"a\": {\"required\": [\"b\"]}}, \"required\": [\"a\"]} {\"required\": []}";
+        try (JsonParser parser = FACTORY.createParser(schemas)) {
+            assertThat(new StreamingSchemaCompiler().compile(parser).getResult()).isNotEmpty();
+            assertThat(parser.currentToken()).isEqualTo(JsonToken.END_OBJECT);
+            parser.nextToken();
+            assertThat(new StreamingSchemaCompiler().compile(parser).getResult()).isNotEmpty();
+        }
+    }
+
+    @Test
+    void returnsSameErrorsOfNestedSchemasAsTreeCompiler() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        for (String schema : new String[]{"{\"properties\": []}", "{\"properties\": {\"a\": 1, \"b\": {\"type\": 1}}}",
+                "{\"properties\": {\"a\": {\"properties\": {\"b\": {\"required\": 1}}}, \"c\": []}}",
+                "{\"patternProperties\": {\"^a\": true, \"[\": {}}}", "{\"patternProperties\": {\"b\": {\"type\": 1}}}",
+                "{\"patternProperties\": 1}", "{\"additionalProperties\": {\"additionalProperties\": []}}",
+                "{\"minLength\": 1.5}", "{\"maxLength\": -3, \"minLength\": {}}", "{\"maxLength\": [1]}",
+                "{\"pattern\": 1}", "{\"pattern\": \"(?<=a)(\"}", "{\"minimum\": null}",
+                "{\"exclusiveMinimum\": 1, \"maximum\": [1]}", "{\"exclusiveMaximum\": true}",
+                "{\"multipleOf\": 0}", "{\"multipleOf\": -1.50}", "{\"multipleOf\": {}}"}) {
+            try (JsonParser parser = FACTORY.createParser(schema)) {
+                assertThat(new StreamingSchemaCompiler().compile(parser).getError())
+                        .isNotEmpty()
+                        .isEqualTo(new SchemaCompiler().compile(mapper.readTree(schema)).getError());
+                assertThat(parser.nextToken()).isNull();
+            }
+        }
+    }
+
+    @Test
+    void compilesSameNumericBoundsAsTreeCompilerWithBigDecimals() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        String[] documents = {"0.1", "0.10000000000000000001", "0.1000000000000000000101", "1e400", "1e401",
+                "-1e400", "0.000000000000000000003", "0.0000000000000000000031", "\"x\""};
+        for (String schema : new String[]{"{\"maximum\": 0.10000000000000000001}", "{\"minimum\": 1e400}",
+                "{\"exclusiveMinimum\": -1e400, \"exclusiveMaximum\": 1e401}",
+                "{\"multipleOf\": 0.000000000000000000001}", "{\"multipleOf\": 1e-400}"}) {
+            CompiledSchema streamed;
+            try (JsonParser parser = FACTORY.createParser(schema)) {
+                streamed = new StreamingSchemaCompiler().compile(parser).getResult().get();
+            }
+            CompiledSchema tree = new SchemaCompiler().compile(mapper.readTree(schema)).getResult().get();
+            for (String document : documents) {
+                assertThat(validate(streamed, document)).as(schema + " " + document)
+                        .isEqualTo(validate(tree, document));
+            }
+        }
+        assertThat(new SchemaCompiler().compile(new ObjectMapper().readTree("{\"maximum\": 1e400}")).getError())
+                .contains("\"maximum\" field contains non-finite number Infinity");
+        assertThat(new SchemaCompiler().compile(new ObjectMapper().readTree("{\"multipleOf\": -1e400}")).getError())
+                .contains("\"multipleOf\" field contains non-finite number -Infinity");
+    }
+
+    private static boolean validate(CompiledSchema schema, String document) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(document)) {
+            return new StreamValidator<CompositeValidator.ValidationContext>(schema)
+                    .validate(schema.newContext(), parser).hasErrors();
+        }
+    }
+
+    private ParseResult<CompiledSchema> compile(String fileName) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(RequiredPropertiesTestCase.class.getResource("parse/" + fileName))) {
+            return new StreamingSchemaCompiler().compile(parser);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package net.golikov.json.schema.stream.parse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.AllowedTypes.Type;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeJsonSchemaTest {
+
+    @Test
+    void returnsNoResultIfNoTypeField() throws IOException {
+        assertThat(parse("{}").getError()).isEmpty();
+        assertThat(parse("{}").getResult()).isEmpty();
+    }
+
+    @Test
+    void readsSingleTypeAndUnions() throws IOException {
+        assertThat(parse("{\"type\": \"integer\"}").getResult().get()).containsExactly(Type.INTEGER);
+        assertThat(parse("{\"type\": [\"string\", \"null\"]}").getResult().get())
+                .containsExactly(Type.STRING, Type.NULL);
+    }
+
+    @Test
+    void returnsErrorsOfInvalidTypes() throws IOException {
+        assertThat(parse("{\"type\": 1}").getError()).contains("\"type\" field contains NUMBER instead of string or array");
+        assertThat(parse("{\"type\": [\"string\", {}]}").getError()).isNotEmpty();
+        assertThat(parse("{\"type\": \"float\"}").getError()).contains("\"type\" field contains unknown types: [float]");
+        assertThat(parse("{\"type\": [\"null\", \"null\"]}").getError()).contains("\"type\" field contains duplicates: [null]");
+    }
+
+    @Test
+    void streamingCompilerReturnsSameErrors() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        for (String schema : new String[]{"{\"type\": 1}", "{\"type\": [\"string\", {}]}", "{\"type\": \"float\"}",
+                "{\"type\": [\"null\", \"null\"]}"}) {
+            assertThat(new StreamingSchemaCompiler().compile(mapper.getFactory().createParser(schema)).getError())
+                    .isNotEmpty()
+                    .isEqualTo(new SchemaCompiler().compile(mapper.readTree(schema)).getError());
+        }
+    }
+
+    private ParseResult<List<Type>> parse(String schema) throws IOException {
+        return new TypeJsonSchema(new ObjectMapper().readTree(schema)).readTypes();
+    }
+
+}
@@ -1,4 +1,4 @@
 rootProject.name = "json-schema-streaming-validator"
 
-include("validation", "json-schema-parse")
+include("validation", "json-schema-parse", "cli", "benchmark")
 
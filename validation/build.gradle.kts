@@ -11,13 +11,20 @@ repositories {
 }
 
 dependencies {
-    val jacksonVersion = "2.8.9"
+    val jacksonVersion = "2.14.3"
     compileOnly("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
     testFixturesImplementation("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
+    testImplementation("com.fasterxml.jackson.core:jackson-core:$jacksonVersion")
+    testImplementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
 }
 
+tasks.withType<JavaCompile> {
+    options.compilerArgs.add("--add-modules=jdk.incubator.vector")
+}
+
 tasks.getByName<Test>("test") {
     useJUnitPlatform()
+    jvmArgs("--add-modules=jdk.incubator.vector")
 }
\ No newline at end of file
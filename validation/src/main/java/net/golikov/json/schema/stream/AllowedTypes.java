@@ -0,0 +1,186 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * {@code type} keyword: the type of a value is known from its first token, so the keyword is
+ * validated right away and a value of a wrong type fails validation before anything else is
+ * read. Floating point numbers with a zero fractional part, such as {@code 1.0} or
+ * {@code 1e3}, are integers; this is decided from the number text without decoding it.
+ */
+public class AllowedTypes implements KeywordValidator<AllowedTypes.ValidationContext> {
+
+    private final int allowed;
+
+    public AllowedTypes(Collection<Type> types) {
+        int allowed = 0;
+        for (Type type : types) {
+            allowed |= type.bit();
+        }
+        this.allowed = allowed;
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext();
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        context.validated = true;
+        context.valid = (types(token) & allowed) != 0;
+        return context;
+    }
+
+    private int types(CurrentToken token) throws IOException {
+        switch (token.currentTokenId()) {
+            case JsonTokenId.ID_START_OBJECT:
+                return Type.OBJECT.bit();
+            case JsonTokenId.ID_START_ARRAY:
+                return Type.ARRAY.bit();
+            case JsonTokenId.ID_STRING:
+                return Type.STRING.bit();
+            case JsonTokenId.ID_NUMBER_INT:
+                return Type.NUMBER.bit() | Type.INTEGER.bit();
+            case JsonTokenId.ID_NUMBER_FLOAT:
+                if ((allowed & Type.NUMBER.bit()) != 0 || (allowed & Type.INTEGER.bit()) == 0) {
+                    return Type.NUMBER.bit();
+                }
+                return isIntegral(token.getTextCharacters(), token.getTextOffset(), token.getTextLength())
+                        ? Type.NUMBER.bit() | Type.INTEGER.bit() : Type.NUMBER.bit();
+            case JsonTokenId.ID_TRUE:
+            case JsonTokenId.ID_FALSE:
+                return Type.BOOLEAN.bit();
+            case JsonTokenId.ID_NULL:
+                return Type.NULL.bit();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @return whether a number in decimal or exponential notation has no fractional part
+     */
+    static boolean isIntegral(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            i++;
+        }
+        boolean zero = true;
+        boolean digits = false;
+        boolean fraction = false;
+        int fractionDigits = 0;
+        int trailingZeros = 0;
+        for (; i < end && text[i] != 'e' && text[i] != 'E'; i++) {
+            char c = text[i];
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            digits = true;
+            if (c == '0') {
+                trailingZeros++;
+            } else {
+                trailingZeros = 0;
+                zero = false;
+            }
+            if (fraction) {
+                fractionDigits++;
+            }
+        }
+        if (!digits) {
+            return false;
+        }
+        if (zero) {
+            return true;
+        }
+        long exponent = 0;
+        if (i < end) {
+            boolean negative = text[++i] == '-';
+            if (negative || text[i] == '+') {
+                i++;
+            }
+            for (; i < end; i++) {
+                exponent = Math.min(exponent * 10 + text[i] - '0', Integer.MAX_VALUE);
+            }
+            if (negative) {
+                exponent = -exponent;
+            }
+        }
+        return trailingZeros + exponent - fractionDigits >= 0;
+    }
+
+    public enum Type {
+        STRING("string"),
+        NUMBER("number"),
+        INTEGER("integer"),
+        BOOLEAN("boolean"),
+        NULL("null"),
+        OBJECT("object"),
+        ARRAY("array");
+
+        private final String keyword;
+
+        Type(String keyword) {
+            this.keyword = keyword;
+        }
+
+        /**
+         * @return name of the type in schemas
+         */
+        public String keyword() {
+            return keyword;
+        }
+
+        public static Optional<Type> forKeyword(String keyword) {
+            for (Type type : values()) {
+                if (type.keyword.equals(keyword)) {
+                    return Optional.of(type);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private boolean validated;
+        private boolean valid;
+
+        private ValidationContext() {
+        }
+
+        @Override
+        public void reset() {
+            validated = false;
+            valid = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return validated && !valid;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+    }
+
+}
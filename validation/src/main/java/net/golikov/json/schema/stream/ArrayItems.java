@@ -0,0 +1,125 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Validates every element of the root array with an item validator, whose context is reset
+ * and reused for each element. Indices of invalid elements are recorded; values other than
+ * arrays are not constrained.
+ */
+public class ArrayItems<C extends ResettableValidationContext> implements KeywordValidator<ArrayItems.ValidationContext<C>> {
+
+    private final KeywordValidator<C> itemValidator;
+
+    public ArrayItems(KeywordValidator<C> itemValidator) {
+        this.itemValidator = itemValidator;
+    }
+
+    @Override
+    public ValidationContext<C> newContext() {
+        return new ValidationContext<>(itemValidator.newContext());
+    }
+
+    @Override
+    public ValidationContext<C> validate(ValidationContext<C> context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        JsonToken currentToken = token.currentToken();
+        if (context.depth == 0) {
+            if (currentToken == JsonToken.START_ARRAY) {
+                context.depth = 1;
+            } else {
+                context.validated = true;
+            }
+            return context;
+        }
+        if (context.depth == 1) {
+            if (currentToken == JsonToken.END_ARRAY) {
+                context.depth = 0;
+                context.validated = true;
+                return context;
+            }
+            context.item.reset();
+        }
+        if (!context.item.isValidated()) {
+            itemValidator.validate(context.item, token);
+        }
+        if (currentToken.isStructStart()) {
+            context.depth++;
+        } else if (currentToken.isStructEnd()) {
+            context.depth--;
+        }
+        if (context.depth == 1) {
+            context.elementValidated();
+        }
+        return context;
+    }
+
+    public static class ValidationContext<C extends ResettableValidationContext> implements ResettableValidationContext {
+
+        private final C item;
+        private int depth;
+        private int elements;
+        private int invalidCount;
+        private int[] invalidElements = new int[8];
+        private boolean validated;
+
+        private ValidationContext(C item) {
+            this.item = item;
+        }
+
+        private void elementValidated() {
+            if (item.hasErrors()) {
+                if (invalidCount == invalidElements.length) {
+                    invalidElements = Arrays.copyOf(invalidElements, invalidCount * 2);
+                }
+                invalidElements[invalidCount++] = elements;
+            }
+            elements++;
+        }
+
+        /**
+         * @return number of elements validated so far
+         */
+        public int getElements() {
+            return elements;
+        }
+
+        /**
+         * @return indices of invalid elements, in ascending order
+         */
+        public int[] getInvalidElements() {
+            return Arrays.copyOf(invalidElements, invalidCount);
+        }
+
+        @Override
+        public void reset() {
+            item.reset();
+            depth = 0;
+            elements = 0;
+            invalidCount = 0;
+            validated = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return invalidCount > 0;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+        @Override
+        public boolean canSkipChildren() {
+            return depth > 1 && (item.isValidated() || item.canSkipChildren());
+        }
+
+    }
+
+}
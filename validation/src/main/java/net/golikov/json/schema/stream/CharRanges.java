@@ -0,0 +1,101 @@
+package net.golikov.json.schema.stream;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of UTF-16 code units, as sorted disjoint inclusive ranges.
+ */
+final class CharRanges {
+
+    static final CharRanges ALL = of(Character.MIN_VALUE, Character.MAX_VALUE);
+    static final CharRanges DIGITS = of('0', '9');
+    static final CharRanges WORD = DIGITS.union(of('A', 'Z')).union(of('a', 'z')).union(of('_', '_'));
+    static final CharRanges LINE_TERMINATORS = of('\n', '\n').union(of('\r', '\r')).union(of('\u2028', '\u2029'));
+    static final CharRanges WHITESPACE = of('\t', '\r').union(of(' ', ' ')).union(of('\u00a0', '\u00a0'))
+            .union(of('\u1680', '\u1680')).union(of('\u2000', '\u200a')).union(LINE_TERMINATORS)
+            .union(of('\u202f', '\u202f')).union(of('\u205f', '\u205f')).union(of('\u3000', '\u3000'))
+            .union(of('\ufeff', '\ufeff'));
+    static final CharRanges EMPTY = new CharRanges(new int[0]);
+
+    /**
+     * Pairs of first and last units of every range.
+     */
+    private final int[] ranges;
+
+    private CharRanges(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    static CharRanges of(char first, char last) {
+        return new CharRanges(new int[]{first, last});
+    }
+
+    CharRanges union(CharRanges other) {
+        int[] all = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, all, ranges.length, other.ranges.length);
+        long[] sorted = new long[all.length / 2];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = (long) all[2 * i] << 32 | all[2 * i + 1];
+        }
+        Arrays.sort(sorted);
+        int[] merged = new int[all.length];
+        int size = 0;
+        for (long range : sorted) {
+            int first = (int) (range >>> 32);
+            int last = (int) range;
+            if (size > 0 && first <= merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], last);
+            } else {
+                merged[size++] = first;
+                merged[size++] = last;
+            }
+        }
+        return new CharRanges(Arrays.copyOf(merged, size));
+    }
+
+    CharRanges negate() {
+        int[] negated = new int[ranges.length + 2];
+        int size = 0;
+        int next = Character.MIN_VALUE;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                negated[size++] = next;
+                negated[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_VALUE) {
+            negated[size++] = next;
+            negated[size++] = Character.MAX_VALUE;
+        }
+        return new CharRanges(Arrays.copyOf(negated, size));
+    }
+
+    boolean contains(int c) {
+        for (int i = 0; i < ranges.length && ranges[i] <= c; i += 2) {
+            if (c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the only unit of the set, or {@code -1} if it has none or several
+     */
+    int single() {
+        return ranges.length == 2 && ranges[0] == ranges[1] ? ranges[0] : -1;
+    }
+
+    /**
+     * Calls the consumer with the first unit of every range and the unit following it.
+     */
+    void boundaries(IntConsumer consumer) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            consumer.accept(ranges[i]);
+            consumer.accept(ranges[i + 1] + 1);
+        }
+    }
+
+}
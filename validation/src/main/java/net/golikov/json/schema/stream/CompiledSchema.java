@@ -0,0 +1,31 @@
+package net.golikov.json.schema.stream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Immutable validator program compiled from a schema. Instances hold no per-document
+ * state and can be shared by any number of threads; each document is validated with its
+ * own context obtained from {@link #newContext()}, which may be
+ * {@link ResettableValidationContext#reset() reset} and reused for the next document.
+ */
+public final class CompiledSchema implements KeywordValidator<CompositeValidator.ValidationContext> {
+
+    private final CompositeValidator keywords;
+
+    public CompiledSchema(List<? extends KeywordValidator<?>> keywords) {
+        this.keywords = new CompositeValidator(keywords);
+    }
+
+    @Override
+    public CompositeValidator.ValidationContext newContext() {
+        return keywords.newContext();
+    }
+
+    @Override
+    public CompositeValidator.ValidationContext validate(CompositeValidator.ValidationContext context,
+                                                         CurrentToken token) throws IOException {
+        return keywords.validate(context, token);
+    }
+
+}
@@ -0,0 +1,105 @@
+package net.golikov.json.schema.stream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs several keyword validators over one token stream in a single pass. Contexts of
+ * all keywords are kept in one flat array, and each token is dispatched only to the
+ * keywords which are not validated yet.
+ * <p>
+ * The composite is validated when every keyword is, or as soon as any keyword is
+ * validated with errors; children may be skipped only if every active keyword allows it.
+ */
+public final class CompositeValidator implements KeywordValidator<CompositeValidator.ValidationContext> {
+
+    private final KeywordValidator<ResettableValidationContext>[] validators;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompositeValidator(List<? extends KeywordValidator<?>> validators) {
+        this.validators = validators.toArray(new KeywordValidator[0]);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        ResettableValidationContext[] contexts = new ResettableValidationContext[validators.length];
+        for (int i = 0; i < validators.length; i++) {
+            contexts[i] = validators[i].newContext();
+        }
+        return new ValidationContext(contexts);
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        ResettableValidationContext[] contexts = context.contexts;
+        int[] active = context.active;
+        boolean skippable = true;
+        int i = 0;
+        while (i < context.activeCount) {
+            int index = active[i];
+            ResettableValidationContext keywordContext = validators[index].validate(contexts[index], token);
+            contexts[index] = keywordContext;
+            if (keywordContext.isValidated()) {
+                context.failed |= keywordContext.hasErrors();
+                active[i] = active[--context.activeCount];
+                active[context.activeCount] = index;
+            } else {
+                skippable &= keywordContext.canSkipChildren();
+                i++;
+            }
+        }
+        context.skippable = skippable;
+        return context;
+    }
+
+    public static final class ValidationContext implements ResettableValidationContext {
+
+        private final ResettableValidationContext[] contexts;
+        private final int[] active;
+        private int activeCount;
+        private boolean failed;
+        private boolean skippable;
+
+        private ValidationContext(ResettableValidationContext[] contexts) {
+            this.contexts = contexts;
+            this.active = new int[contexts.length];
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            for (int i = 0; i < contexts.length; i++) {
+                contexts[i].reset();
+                active[i] = i;
+            }
+            activeCount = contexts.length;
+            failed = false;
+            skippable = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            if (failed) {
+                return true;
+            }
+            for (int i = 0; i < activeCount; i++) {
+                if (contexts[active[i]].hasErrors()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return failed || activeCount == 0;
+        }
+
+        @Override
+        public boolean canSkipChildren() {
+            return skippable;
+        }
+
+    }
+
+}
@@ -1,9 +1,12 @@
 package net.golikov.json.schema.stream;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
 
 import java.io.IOException;
+import java.io.Writer;
 
 public interface CurrentToken {
     /**
@@ -21,6 +24,22 @@ public interface CurrentToken {
      */
     JsonToken currentToken();
 
+    /**
+     * Method similar to {@link #currentToken()} but that returns an
+     * <code>int</code> instead of {@link JsonToken} (enum value).
+     *<p>
+     * Use of int directly is typically more efficient on switch statements,
+     * so this method may be useful when building low-overhead codecs.
+     * Note, however, that effect may not be big enough to matter: make sure
+     * to profile performance before deciding to use this method.
+     *
+     * @return {@code int} matching one of constants from {@link JsonTokenId}.
+     */
+    default int currentTokenId() {
+        JsonToken token = currentToken();
+        return token == null ? JsonTokenId.ID_NO_TOKEN : token.id();
+    }
+
     /**
      * Method for accessing textual representation of the current token;
      * if no current token (before first call to {@link #nextToken}, or
@@ -34,4 +53,107 @@ public interface CurrentToken {
      *   {@link JsonParseException} for decoding problems
      */
     String getText() throws IOException;
+
+    /**
+     * Method to read the textual representation of the current token in chunks and
+     * pass it to the given Writer, without combining longer content into a single String.
+     * An exception thrown by the writer stops reading, and the token stays current.
+     *
+     * @param writer Writer to write textual content to
+     *
+     * @return The number of characters written to the Writer
+     *
+     * @throws IOException for low-level read issues or writes using passed
+     *   {@code writer}, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    default int getText(Writer writer) throws IOException {
+        char[] chars = getTextCharacters();
+        if (chars == null) {
+            return 0;
+        }
+        int length = getTextLength();
+        writer.write(chars, getTextOffset(), length);
+        return length;
+    }
+
+    /**
+     * Method similar to {@link #getText}, but that will return
+     * underlying (unmodifiable) character array that contains
+     * textual value, instead of constructing a String object
+     * to contain this information.
+     * Note, however, that:
+     *<ul>
+     * <li>Textual contents are not guaranteed to start at
+     *   index 0 (rather, call {@link #getTextOffset}) to
+     *   know the actual offset
+     *  </li>
+     * <li>Length of textual contents may be less than the
+     *  length of returned buffer: call {@link #getTextLength}
+     *  for actual length of returned content.
+     *  </li>
+     * </ul>
+     *<p>
+     * Note that caller <b>MUST NOT</b> modify the returned
+     * character array in any way -- doing so may corrupt
+     * current parser state and render parser instance useless.
+     *
+     * @return Buffer that contains the current textual value (but not necessarily
+     *    at offset 0, and not necessarily until the end of buffer)
+     *
+     * @throws IOException for low-level read issues, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    char[] getTextCharacters() throws IOException;
+
+    /**
+     * Accessor used with {@link #getTextCharacters}, to know length
+     * of String stored in returned buffer.
+     *
+     * @return Number of characters within buffer returned
+     *   by {@link #getTextCharacters} that are part of
+     *   textual content of the current token.
+     *
+     * @throws IOException for low-level read issues, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    int getTextLength() throws IOException;
+
+    /**
+     * Accessor used with {@link #getTextCharacters}, to know offset
+     * of the first text content character within buffer.
+     *
+     * @return Offset of the first character within buffer returned
+     *   by {@link #getTextCharacters} that is part of
+     *   textual content of the current token.
+     *
+     * @throws IOException for low-level read issues, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    int getTextOffset() throws IOException;
+
+    /**
+     * If current token is of type
+     * {@link JsonToken#VALUE_NUMBER_INT} or
+     * {@link JsonToken#VALUE_NUMBER_FLOAT}, returns
+     * one of {@link JsonParser.NumberType} constants; otherwise returns null.
+     *
+     * @return Type of current number, if parser points to numeric token; {@code null} otherwise
+     *
+     * @throws IOException for low-level read issues, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    JsonParser.NumberType getNumberType() throws IOException;
+
+    /**
+     * Looks the text of the current token up in a name table, without creating a String.
+     *
+     * @return index of the current text in the table, or {@code -1} if it is not there
+     *
+     * @throws IOException for low-level read issues, or
+     *   {@link JsonParseException} for decoding problems
+     */
+    default int lookUp(PropertyNameTable names) throws IOException {
+        return names.indexOf(getTextCharacters(), getTextOffset(), getTextLength());
+    }
 }
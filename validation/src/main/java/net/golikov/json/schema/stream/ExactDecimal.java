@@ -0,0 +1,262 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Mutable exact value of a number: an unscaled {@code long} with a scale from {@code 0} to
+ * {@value #MAX_SCALE} for numbers of a usual size, and a {@link BigDecimal} for the rest.
+ * Number tokens are read from their text, so reading them allocates nothing unless they do not
+ * fit; integers are told apart from big integers by {@link CurrentToken#getNumberType()}, which
+ * is not asked for floats, as Jackson parses a {@code double} to answer it.
+ */
+final class ExactDecimal {
+
+    static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private long unscaled;
+    private int scale;
+    private BigDecimal big;
+
+    ExactDecimal() {
+    }
+
+    ExactDecimal(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        if (stripped.scale() < 0) {
+            stripped = stripped.setScale(0);
+        }
+        if (stripped.scale() <= MAX_SCALE && stripped.unscaledValue().bitLength() < Long.SIZE) {
+            unscaled = stripped.unscaledValue().longValue();
+            scale = stripped.scale();
+        } else {
+            big = value;
+        }
+    }
+
+    /**
+     * Reads the number token the token points to.
+     *
+     * @return {@code false} if the number is {@code NaN} or infinite, which no numeric keyword
+     * accepts; the value is undefined then
+     */
+    boolean read(CurrentToken token) throws IOException {
+        char[] text = token.getTextCharacters();
+        int offset = token.getTextOffset();
+        int length = token.getTextLength();
+        big = null;
+        if (token.currentTokenId() == JsonTokenId.ID_NUMBER_INT
+                && token.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                || !parse(text, offset, length)) {
+            if (isNonFinite(text, offset, length)) {
+                return false;
+            }
+            try {
+                big = new BigDecimal(text, offset, length);
+            } catch (NumberFormatException e) {
+                // as Jackson reports numbers whose exponent does not fit an int
+                throw new JsonParseException(null, String.format("Malformed numeric value (%s)",
+                        new String(text, offset, Math.min(length, 1000))), e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the number text is one of the non-numeric numbers Jackson reads and writes,
+     * {@code NaN}, {@code Infinity} or {@code INF} with an optional sign
+     */
+    private static boolean isNonFinite(char[] text, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            i++;
+        }
+        return i < end && (text[i] == 'N' || text[i] == 'I');
+    }
+
+    /**
+     * @return whether the number text is {@code [sign]digits[.digits][e[sign]digits]} and fits an
+     * unscaled {@code long} and a scale, which are set then
+     */
+    private boolean parse(char[] text, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        if (i == end) {
+            return false;
+        }
+        boolean negative = text[i] == '-';
+        if (negative || text[i] == '+') {
+            i++;
+        }
+        long value = 0;
+        int scale = 0;
+        int digits = 0;
+        // zero digits not multiplied into the value yet, so that trailing zeros never overflow it
+        int zeros = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            digits++;
+            if (fraction) {
+                scale++;
+            }
+            if (c == '0') {
+                zeros++;
+                continue;
+            }
+            if (value == 0) {
+                value = c - '0';
+            } else if (zeros + 1 > MAX_SCALE || value > (Long.MAX_VALUE - (c - '0')) / POWERS_OF_TEN[zeros + 1]) {
+                return false;
+            } else {
+                value = value * POWERS_OF_TEN[zeros + 1] + (c - '0');
+            }
+            zeros = 0;
+        }
+        if (digits == 0) {
+            return false;
+        }
+        long exponent = 0;
+        if (i < end) {
+            if (text[i] != 'e' && text[i] != 'E' || ++i == end) {
+                return false;
+            }
+            boolean negativeExponent = text[i] == '-';
+            if (negativeExponent || text[i] == '+') {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            for (; i < end; i++) {
+                char c = text[i];
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                exponent = Math.min(exponent * 10 + c - '0', Integer.MAX_VALUE);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (value == 0) {
+            this.unscaled = 0;
+            this.scale = 0;
+            return true;
+        }
+        long effectiveScale = scale - zeros - exponent;
+        if (effectiveScale > MAX_SCALE) {
+            return false;
+        }
+        if (effectiveScale < 0) {
+            if (-effectiveScale > MAX_SCALE || value > Long.MAX_VALUE / POWERS_OF_TEN[(int) -effectiveScale]) {
+                return false;
+            }
+            value *= POWERS_OF_TEN[(int) -effectiveScale];
+            effectiveScale = 0;
+        }
+        this.unscaled = negative ? -value : value;
+        this.scale = (int) effectiveScale;
+        return true;
+    }
+
+    BigDecimal toBigDecimal() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * @return negative, zero or positive as this number is less than, equal to or greater than the other
+     */
+    int compareTo(ExactDecimal other) {
+        if (big != null || other.big != null) {
+            return toBigDecimal().compareTo(other.toBigDecimal());
+        }
+        if (scale == other.scale) {
+            return Long.compare(unscaled, other.unscaled);
+        }
+        if (scale < other.scale) {
+            return compareScaled(unscaled, other.scale - scale, other.unscaled);
+        }
+        return -compareScaled(other.unscaled, scale - other.scale, unscaled);
+    }
+
+    /**
+     * @return sign of {@code value * 10^digits - other}; a product beyond {@code long} is beyond any other too
+     */
+    private static int compareScaled(long value, int digits, long other) {
+        long power = POWERS_OF_TEN[digits];
+        if (value > Long.MAX_VALUE / power || value < Long.MIN_VALUE / power) {
+            return Long.signum(value);
+        }
+        return Long.compare(value * power, other);
+    }
+
+    /**
+     * @return whether dividing this number by the positive divisor gives an integer
+     */
+    boolean isMultipleOf(ExactDecimal divisor) {
+        if (big == null && divisor.big == null) {
+            int commonScale = Math.max(scale, divisor.scale);
+            long power = POWERS_OF_TEN[commonScale - divisor.scale];
+            if (divisor.unscaled <= Long.MAX_VALUE / power) {
+                long scaledDivisor = divisor.unscaled * power;
+                long remainder = unscaled % scaledDivisor;
+                // scales the remainder up to the common scale one digit at a time, modulo the divisor
+                for (int i = scale; i < commonScale && remainder != 0; i++) {
+                    if (Math.abs(remainder) > Long.MAX_VALUE / 10) {
+                        return isMultiple(toBigDecimal(), divisor.toBigDecimal());
+                    }
+                    remainder = remainder * 10 % scaledDivisor;
+                }
+                return remainder == 0;
+            }
+        }
+        return isMultiple(toBigDecimal(), divisor.toBigDecimal());
+    }
+
+    /**
+     * Tells whether {@code u * 10^-q} divided by {@code m * 10^-s} is an integer without expanding
+     * large exponents: it is if {@code u * 10^(s - q)} is divisible by {@code m}, and
+     * {@code 10^(s - q) mod m} takes a logarithmic number of steps.
+     */
+    private static boolean isMultiple(BigDecimal value, BigDecimal divisor) {
+        BigInteger unscaled = value.unscaledValue();
+        BigInteger modulus = divisor.unscaledValue();
+        long exponent = (long) divisor.scale() - value.scale();
+        if (unscaled.signum() == 0) {
+            return true;
+        }
+        if (exponent >= 0) {
+            return unscaled.mod(modulus).multiply(BigInteger.TEN.modPow(BigInteger.valueOf(exponent), modulus))
+                    .mod(modulus).signum() == 0;
+        }
+        // a non-zero value with fewer digits than the negative exponent is below the divisor
+        if (-exponent > value.precision()) {
+            return false;
+        }
+        return unscaled.mod(modulus.multiply(BigInteger.TEN.pow((int) -exponent))).signum() == 0;
+    }
+
+}
@@ -0,0 +1,85 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation-free counterpart of {@link RequiredProperties}: required names are compiled
+ * once into a {@link PropertyNameTable} and the per-document state is a bit set of
+ * satisfied indices, which is updated in place and can be reused via
+ * {@link ValidationContext#reset()}.
+ */
+public class IndexedRequiredProperties implements KeywordValidator<IndexedRequiredProperties.ValidationContext> {
+
+    private final PropertyNameTable requiredPropertyNames;
+
+    public IndexedRequiredProperties(List<String> requiredPropertyNames) {
+        this.requiredPropertyNames = new PropertyNameTable(requiredPropertyNames);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext(requiredPropertyNames.size());
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.missing == 0) {
+            return context;
+        }
+        if (token.currentToken() == JsonToken.FIELD_NAME) {
+            int index = token.lookUp(requiredPropertyNames);
+            if (index >= 0) {
+                context.found(index);
+            }
+        }
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final long[] found;
+        private final int size;
+        private int missing;
+
+        private ValidationContext(int size) {
+            this.found = new long[(size + 63) >>> 6];
+            this.size = size;
+            this.missing = size;
+        }
+
+        private void found(int index) {
+            long bit = 1L << index;
+            int word = index >>> 6;
+            if ((found[word] & bit) == 0) {
+                found[word] |= bit;
+                missing--;
+            }
+        }
+
+        public boolean isFound(int index) {
+            return (found[index >>> 6] & (1L << index)) != 0;
+        }
+
+        @Override
+        public void reset() {
+            Arrays.fill(found, 0L);
+            missing = size;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return missing != 0;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package net.golikov.json.schema.stream;
+
+/**
+ * Validator which updates its contexts in place; contexts are created once per document
+ * (or once per worker, when reset between documents).
+ */
+public interface KeywordValidator<C extends ResettableValidationContext> extends Validator<C> {
+    C newContext();
+}
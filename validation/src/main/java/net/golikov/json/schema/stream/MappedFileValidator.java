@@ -0,0 +1,133 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Validates a file by memory-mapping it in segments and feeding the mapped buffers straight
+ * to a byte buffer based {@link NonBlockingValidator}, without copying them to the heap.
+ * A segment is unmapped as soon as the parser has moved on to the next one, which keeps
+ * resident memory bounded by about two segments regardless of the file size.
+ */
+public class MappedFileValidator<C extends ResettableValidationContext> {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final Unmapper UNMAPPER = Unmapper.create();
+
+    private final JsonFactory factory;
+    private final KeywordValidator<C> validator;
+    private final int segmentSize;
+
+    public MappedFileValidator(JsonFactory factory, KeywordValidator<C> validator) {
+        this(factory, validator, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedFileValidator(JsonFactory factory, KeywordValidator<C> validator, int segmentSize) {
+        this.factory = factory;
+        this.validator = validator;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @throws IOException if the file can't be read or is not well-formed JSON; parse errors
+     *   carry the byte offset of the problem in their location
+     */
+    public Result<C> validate(Path file) throws IOException {
+        NonBlockingValidator<C> validation = new NonBlockingValidator<>(factory, validator, true);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer consumed = null;
+            NonBlockingValidator.Status status = NonBlockingValidator.Status.NEED_MORE_INPUT;
+            try {
+                for (long position = 0; position < size && status == NonBlockingValidator.Status.NEED_MORE_INPUT;
+                     position += segmentSize) {
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(segmentSize, size - position));
+                    status = validation.feed(segment);
+                    UNMAPPER.unmap(consumed);
+                    consumed = segment;
+                }
+                if (status == NonBlockingValidator.Status.NEED_MORE_INPUT) {
+                    validation.endOfInput();
+                }
+            } finally {
+                UNMAPPER.unmap(consumed);
+            }
+        }
+        return new Result<>(validation.getContext(), validation.getByteOffset());
+    }
+
+    public static final class Result<C extends ValidationContext> {
+
+        private final C context;
+        private final long byteOffset;
+
+        private Result(C context, long byteOffset) {
+            this.context = context;
+            this.byteOffset = byteOffset;
+        }
+
+        public C getContext() {
+            return context;
+        }
+
+        public boolean hasErrors() {
+            return context.hasErrors();
+        }
+
+        /**
+         * @return offset of the token the verdict was reached at, as reported by the parser
+         */
+        public long getByteOffset() {
+            return byteOffset;
+        }
+
+    }
+
+    /**
+     * Releases mapped buffers eagerly through {@code sun.misc.Unsafe#invokeCleaner} when
+     * it is accessible; otherwise segments are unmapped once they are garbage collected.
+     */
+    private static final class Unmapper {
+
+        private final Object unsafe;
+        private final Method invokeCleaner;
+
+        private Unmapper(Object unsafe, Method invokeCleaner) {
+            this.unsafe = unsafe;
+            this.invokeCleaner = invokeCleaner;
+        }
+
+        private static Unmapper create() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return new Unmapper(theUnsafe.get(null), unsafeClass.getMethod("invokeCleaner", ByteBuffer.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return new Unmapper(null, null);
+            }
+        }
+
+        private void unmap(MappedByteBuffer buffer) {
+            if (buffer == null || invokeCleaner == null) {
+                return;
+            }
+            try {
+                invokeCleaner.invoke(unsafe, buffer);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // left to the garbage collector
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * {@code multipleOf} keyword: a number is valid if dividing it by the divisor gives an integer.
+ * The number is read from its token text into an {@link ExactDecimal} of the context and the
+ * remainder is computed exactly on {@code long} values scaled to a common scale, with
+ * {@link BigDecimal} only for numbers which do not fit. Values of other types are valid.
+ * {@code NaN} and infinities, which Jackson reads and writes as non-numeric numbers, are invalid.
+ */
+public class MultipleOf implements KeywordValidator<MultipleOf.ValidationContext> {
+
+    private final ExactDecimal divisor;
+
+    /**
+     * @throws IllegalArgumentException if the divisor is not positive
+     */
+    public MultipleOf(BigDecimal divisor) {
+        if (divisor.signum() <= 0) {
+            throw new IllegalArgumentException(String.format("Divisor %s is not positive", divisor));
+        }
+        this.divisor = new ExactDecimal(divisor);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext();
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        context.validated = true;
+        int id = token.currentTokenId();
+        if (id != JsonTokenId.ID_NUMBER_INT && id != JsonTokenId.ID_NUMBER_FLOAT) {
+            context.valid = true;
+            return context;
+        }
+        context.valid = context.value.read(token) && context.value.isMultipleOf(divisor);
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final ExactDecimal value = new ExactDecimal();
+        private boolean validated;
+        private boolean valid;
+
+        private ValidationContext() {
+        }
+
+        @Override
+        public void reset() {
+            validated = false;
+            valid = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return validated && !valid;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+    }
+
+}
@@ -0,0 +1,329 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Validates newline-delimited JSON (JSON Lines) in parallel. Input is read sequentially and
+ * cut into chunks on newline boundaries; chunks are validated on a {@link ForkJoinPool}
+ * against one shared validator, and per-line results are reported in input order from the
+ * calling thread. At most two chunks per pool thread are kept in flight. Every line is read to
+ * its end after the verdict is known, so malformed or trailing content is reported as well.
+ */
+public class NdjsonValidator<C extends ResettableValidationContext> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final JsonFactory factory;
+    private final KeywordValidator<C> validator;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public NdjsonValidator(JsonFactory factory, KeywordValidator<C> validator) {
+        this(factory, validator, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public NdjsonValidator(JsonFactory factory, KeywordValidator<C> validator, ForkJoinPool pool, int chunkSize) {
+        this.factory = factory;
+        this.validator = validator;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates every non-blank line of the input.
+     *
+     * @param results receives results of validated lines in input order
+     * @return aggregate counters and throughput
+     */
+    public Summary validate(InputStream input, Consumer<LineResult> results) throws IOException {
+        long started = System.nanoTime();
+        ArrayDeque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+        Summary summary = new Summary();
+        byte[] buffer = new byte[chunkSize];
+        int length = 0;
+        long offset = 0;
+        boolean eof = false;
+        while (!eof) {
+            int read = input.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                eof = true;
+            } else {
+                length += read;
+                if (length < buffer.length) {
+                    continue;
+                }
+            }
+            int end = eof ? length : lastNewLine(buffer, length) + 1;
+            if (end == 0 && !eof) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+            if (end > 0) {
+                byte[] next = new byte[Math.max(chunkSize, length - end)];
+                System.arraycopy(buffer, end, next, 0, length - end);
+                inFlight.add(pool.submit(new ChunkTask(buffer, end, offset)));
+                offset += end;
+                length -= end;
+                buffer = next;
+            }
+            while (inFlight.size() > 2 * pool.getParallelism() || (eof && !inFlight.isEmpty())) {
+                report(join(inFlight.poll()), summary, results);
+            }
+        }
+        summary.elapsedNanos = System.nanoTime() - started;
+        return summary;
+    }
+
+    private static int lastNewLine(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ChunkResult join(ForkJoinTask<ChunkResult> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static void report(ChunkResult chunk, Summary summary, Consumer<LineResult> results) {
+        for (int i = 0; i < chunk.documents; i++) {
+            if (chunk.invalid[i]) {
+                summary.invalidDocuments++;
+            }
+            results.accept(new LineResult(summary.lines + chunk.lineNumbers[i] + 1,
+                    chunk.offset + chunk.lineOffsets[i], chunk.lineLengths[i], chunk.nanos[i],
+                    chunk.invalid[i], chunk.errors[i]));
+        }
+        summary.documents += chunk.documents;
+        summary.lines += chunk.lines;
+        summary.bytes += chunk.length;
+    }
+
+    private final class ChunkTask implements Callable<ChunkResult> {
+
+        private final byte[] bytes;
+        private final int length;
+        private final long offset;
+
+        private ChunkTask(byte[] bytes, int length, long offset) {
+            this.bytes = bytes;
+            this.length = length;
+            this.offset = offset;
+        }
+
+        @Override
+        public ChunkResult call() throws IOException {
+            ChunkResult result = new ChunkResult(offset, length);
+            StreamValidator<C> loop = new StreamValidator<>(validator);
+            C context = validator.newContext();
+            int lineStart = 0;
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && bytes[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                if (!isBlank(lineStart, lineEnd)) {
+                    long started = System.nanoTime();
+                    context.reset();
+                    try (JsonParser parser = factory.createParser(bytes, lineStart, lineEnd - lineStart)) {
+                        boolean hasErrors = loop.validate(context, parser).hasErrors();
+                        finish(parser);
+                        result.add(lineStart, lineEnd - lineStart, System.nanoTime() - started, hasErrors, null);
+                    } catch (JsonProcessingException e) {
+                        result.add(lineStart, lineEnd - lineStart, System.nanoTime() - started, true,
+                                e.getOriginalMessage());
+                    }
+                }
+                result.lines++;
+                lineStart = lineEnd + 1;
+            }
+            return result;
+        }
+
+        /**
+         * Reads the rest of the document the validation stopped in and fails on any content after it.
+         */
+        private void finish(JsonParser parser) throws IOException {
+            while (!parser.getParsingContext().inRoot()) {
+                parser.nextToken();
+            }
+            JsonToken trailing = parser.nextToken();
+            if (trailing != null) {
+                throw new JsonParseException(parser, String.format("Trailing token (of type %s) found after value",
+                        trailing));
+            }
+        }
+
+        private boolean isBlank(int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte b = bytes[i];
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private static final class ChunkResult {
+
+        private final long offset;
+        private final int length;
+        private int lines;
+        private int documents;
+        private int[] lineNumbers = new int[64];
+        private int[] lineOffsets = new int[64];
+        private int[] lineLengths = new int[64];
+        private long[] nanos = new long[64];
+        private boolean[] invalid = new boolean[64];
+        private String[] errors = new String[64];
+
+        private ChunkResult(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private void add(int lineOffset, int lineLength, long elapsedNanos, boolean hasErrors, String error) {
+            if (documents == lineNumbers.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, documents * 2);
+                lineOffsets = Arrays.copyOf(lineOffsets, documents * 2);
+                lineLengths = Arrays.copyOf(lineLengths, documents * 2);
+                nanos = Arrays.copyOf(nanos, documents * 2);
+                invalid = Arrays.copyOf(invalid, documents * 2);
+                errors = Arrays.copyOf(errors, documents * 2);
+            }
+            lineNumbers[documents] = lines;
+            lineOffsets[documents] = lineOffset;
+            lineLengths[documents] = lineLength;
+            nanos[documents] = elapsedNanos;
+            invalid[documents] = hasErrors;
+            errors[documents] = error;
+            documents++;
+        }
+
+    }
+
+    public static final class LineResult {
+
+        private final long lineNumber;
+        private final long byteOffset;
+        private final int length;
+        private final long elapsedNanos;
+        private final boolean hasErrors;
+        private final String parseError;
+
+        private LineResult(long lineNumber, long byteOffset, int length, long elapsedNanos, boolean hasErrors,
+                           String parseError) {
+            this.lineNumber = lineNumber;
+            this.byteOffset = byteOffset;
+            this.length = length;
+            this.elapsedNanos = elapsedNanos;
+            this.hasErrors = hasErrors;
+            this.parseError = parseError;
+        }
+
+        /**
+         * @return 1-based number of the line, blank lines included
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return offset of the first byte of the line within the input
+         */
+        public long getByteOffset() {
+            return byteOffset;
+        }
+
+        /**
+         * @return number of bytes in the line, not counting the newline
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @return time spent parsing and validating the line
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public boolean hasErrors() {
+            return hasErrors;
+        }
+
+        /**
+         * @return message of the parse error if the line is not well-formed JSON
+         */
+        public Optional<String> getParseError() {
+            return Optional.ofNullable(parseError);
+        }
+
+    }
+
+    public static final class Summary {
+
+        private long lines;
+        private long documents;
+        private long invalidDocuments;
+        private long bytes;
+        private long elapsedNanos;
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getDocuments() {
+            return documents;
+        }
+
+        public long getInvalidDocuments() {
+            return invalidDocuments;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+        }
+
+        public double getDocumentsPerSecond() {
+            return elapsedNanos == 0 ? 0 : documents * 1e9 / elapsedNanos;
+        }
+
+    }
+
+}
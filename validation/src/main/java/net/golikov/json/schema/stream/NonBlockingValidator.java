@@ -0,0 +1,208 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Push-style validation of one document on top of Jackson's non-blocking parser. Chunks are
+ * fed as they arrive and every call returns the status reached so far, so an invalid
+ * document can be rejected before the rest of it has been received.
+ * <p>
+ * Fed arrays are only referenced until the call returns, so callers may reuse them.
+ * By default input is parsed from byte arrays and direct buffers are copied; validators
+ * created with {@code byteBufferInput} parse buffers in place instead.
+ * Instances are not thread-safe.
+ */
+public class NonBlockingValidator<C extends ResettableValidationContext> {
+
+    public enum Status {
+        /**
+         * No verdict yet: nothing failed so far and more input is needed.
+         */
+        NEED_MORE_INPUT,
+        /**
+         * Document is invalid; the rest of input is not needed.
+         */
+        FAILED,
+        /**
+         * Document is valid; the rest of input, if any, is not needed.
+         */
+        VALID
+    }
+
+    private final JsonFactory factory;
+    private final boolean byteBufferInput;
+    private final KeywordValidator<C> validator;
+    private final C context;
+    private JsonParser parser;
+    private JsonParserWrapper token;
+    private byte[] scratch = new byte[0];
+    private int skippedDepth;
+    private Status status;
+
+    public NonBlockingValidator(JsonFactory factory, KeywordValidator<C> validator) throws IOException {
+        this(factory, validator, false);
+    }
+
+    public NonBlockingValidator(JsonFactory factory, KeywordValidator<C> validator,
+                                boolean byteBufferInput) throws IOException {
+        this.factory = factory;
+        this.byteBufferInput = byteBufferInput;
+        this.validator = validator;
+        this.context = validator.newContext();
+        reset();
+    }
+
+    public Status feed(byte[] bytes, int offset, int length) throws IOException {
+        if (byteBufferInput) {
+            return feed(ByteBuffer.wrap(bytes, offset, length));
+        }
+        if (status != Status.NEED_MORE_INPUT) {
+            return status;
+        }
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, offset, offset + length);
+        return drain();
+    }
+
+    public Status feed(ByteBuffer buffer) throws IOException {
+        if (byteBufferInput) {
+            if (status != Status.NEED_MORE_INPUT) {
+                return status;
+            }
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(buffer);
+            Status status = drain();
+            buffer.position(buffer.limit());
+            return status;
+        }
+        int length = buffer.remaining();
+        if (buffer.hasArray()) {
+            Status status = feed(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            buffer.position(buffer.limit());
+            return status;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return feed(scratch, 0, length);
+    }
+
+    /**
+     * Signals that the whole document has been fed; fails with {@link IOException} if it is incomplete.
+     *
+     * @return {@link Status#VALID} or {@link Status#FAILED}
+     */
+    public Status endOfInput() throws IOException {
+        if (status == Status.NEED_MORE_INPUT) {
+            parser.getNonBlockingInputFeeder().endOfInput();
+            drain();
+            if (status == Status.NEED_MORE_INPUT) {
+                status = verdict();
+            }
+        }
+        return status;
+    }
+
+    public C getContext() {
+        return context;
+    }
+
+    /**
+     * @return offset of the last token read, counted from the start of the document;
+     *   once the verdict is known, the offset of the token it was reached at
+     */
+    public long getByteOffset() {
+        return parser.getTokenLocation().getByteOffset();
+    }
+
+    /**
+     * Prepares the validator for the next document, reusing the validation context.
+     */
+    public void reset() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        parser = byteBufferInput
+                ? factory.createNonBlockingByteBufferParser()
+                : factory.createNonBlockingByteArrayParser();
+        token = new FieldNameCopyingParser(parser);
+        context.reset();
+        skippedDepth = 0;
+        status = Status.NEED_MORE_INPUT;
+    }
+
+    private Status drain() throws IOException {
+        JsonToken next;
+        while (status == Status.NEED_MORE_INPUT && (next = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+            if (next == null) {
+                break;
+            }
+            if (skippedDepth > 0) {
+                if (next.isStructStart()) {
+                    skippedDepth++;
+                } else if (next.isStructEnd()) {
+                    skippedDepth--;
+                }
+                if (skippedDepth > 0) {
+                    continue;
+                }
+            }
+            validator.validate(context, token);
+            if (context.isValidated() || parser.getParsingContext().inRoot()) {
+                status = verdict();
+            } else if (next.isStructStart() && context.canSkipChildren()) {
+                skippedDepth = 1;
+            }
+        }
+        return status;
+    }
+
+    private Status verdict() {
+        return context.hasErrors() ? Status.FAILED : Status.VALID;
+    }
+
+    /**
+     * Jackson's non-blocking parser does not refresh its name copy buffer between
+     * field names, so {@link #getTextCharacters()} may return the previous name.
+     * Names are copied from the canonical current name into a reused buffer instead.
+     */
+    private static final class FieldNameCopyingParser extends JsonParserWrapper {
+
+        private char[] name = new char[32];
+
+        private FieldNameCopyingParser(JsonParser delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public char[] getTextCharacters() throws IOException {
+            if (currentToken() != JsonToken.FIELD_NAME) {
+                return super.getTextCharacters();
+            }
+            String currentName = getCurrentName();
+            if (name.length < currentName.length()) {
+                name = new char[Math.max(currentName.length(), name.length * 2)];
+            }
+            currentName.getChars(0, currentName.length(), name, 0);
+            return name;
+        }
+
+        @Override
+        public int getTextOffset() throws IOException {
+            return currentToken() == JsonToken.FIELD_NAME ? 0 : super.getTextOffset();
+        }
+
+        @Override
+        public int getTextLength() throws IOException {
+            return currentToken() == JsonToken.FIELD_NAME ? getCurrentName().length() : super.getTextLength();
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * {@code minimum}, {@code exclusiveMinimum}, {@code maximum} and {@code exclusiveMaximum}
+ * keywords: a number is read once from its token text into an {@link ExactDecimal} of the
+ * context, and compared exactly with every bound, as {@code long} values for usual numbers and
+ * as {@link BigDecimal} values only for the rest. Values of other types are valid.
+ * {@code NaN} and infinities, which Jackson reads and writes as non-numeric numbers, are invalid.
+ */
+public class NumberRange implements KeywordValidator<NumberRange.ValidationContext> {
+
+    private final ExactDecimal minimum;
+    private final ExactDecimal exclusiveMinimum;
+    private final ExactDecimal maximum;
+    private final ExactDecimal exclusiveMaximum;
+
+    /**
+     * Every bound is {@code null} if there is none.
+     */
+    public NumberRange(BigDecimal minimum, BigDecimal exclusiveMinimum,
+                       BigDecimal maximum, BigDecimal exclusiveMaximum) {
+        this.minimum = bound(minimum);
+        this.exclusiveMinimum = bound(exclusiveMinimum);
+        this.maximum = bound(maximum);
+        this.exclusiveMaximum = bound(exclusiveMaximum);
+    }
+
+    private static ExactDecimal bound(BigDecimal value) {
+        return value == null ? null : new ExactDecimal(value);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext();
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        context.validated = true;
+        int id = token.currentTokenId();
+        if (id != JsonTokenId.ID_NUMBER_INT && id != JsonTokenId.ID_NUMBER_FLOAT) {
+            context.valid = true;
+            return context;
+        }
+        ExactDecimal value = context.value;
+        context.valid = value.read(token)
+                && (minimum == null || value.compareTo(minimum) >= 0)
+                && (exclusiveMinimum == null || value.compareTo(exclusiveMinimum) > 0)
+                && (maximum == null || value.compareTo(maximum) <= 0)
+                && (exclusiveMaximum == null || value.compareTo(exclusiveMaximum) < 0);
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final ExactDecimal value = new ExactDecimal();
+        private boolean validated;
+        private boolean valid;
+
+        private ValidationContext() {
+        }
+
+        @Override
+        public void reset() {
+            validated = false;
+            valid = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return validated && !valid;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code properties}, {@code patternProperties} and {@code additionalProperties} keywords:
+ * values of root object properties are validated with the subschemas of their names, of the
+ * patterns matching their names, or else with the additional subschema. Without patterns field
+ * names are resolved through a {@link PropertyNameTable}, otherwise names and patterns are
+ * matched at once by a {@link PropertyNameAutomaton}, both straight from the token text. Per
+ * document the only state is the subschemas of the property whose value is being read and the
+ * depth within it, next to one preallocated context per subschema, so nested keywords keep
+ * their state in their own contexts without allocation.
+ * <p>
+ * Values of properties without a subschema, and the rest of values whose subschemas are already
+ * validated, are reported as skippable. The keyword fails as soon as a subschema fails.
+ */
+public class ObjectProperties implements KeywordValidator<ObjectProperties.ValidationContext> {
+
+    private static final int UNCONSTRAINED = -1;
+    private static final int[] NONE = new int[0];
+
+    private final PropertyNameTable names;
+    private final List<String> patterns;
+    private final PropertyNameAutomaton automaton;
+    private final int[][] singletons;
+    private final int[] additional;
+    private final KeywordValidator<ResettableValidationContext>[] validators;
+
+    public ObjectProperties(Map<String, ? extends KeywordValidator<?>> properties) {
+        this(properties, Collections.emptyMap(), null);
+    }
+
+    /**
+     * Subschemas are indexed in order: properties, then patterns, then the additional subschema.
+     *
+     * @param additionalProperties subschema of properties matching no name or pattern,
+     *   {@code null} if they are not constrained
+     * @throws java.util.regex.PatternSyntaxException if a pattern is not a valid regular expression
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ObjectProperties(Map<String, ? extends KeywordValidator<?>> properties,
+                            Map<String, ? extends KeywordValidator<?>> patternProperties,
+                            KeywordValidator<?> additionalProperties) {
+        List<String> propertyNames = new ArrayList<>(properties.keySet());
+        this.names = new PropertyNameTable(propertyNames);
+        this.patterns = new ArrayList<>(patternProperties.keySet());
+        this.automaton = patterns.isEmpty() ? null : new PropertyNameAutomaton(propertyNames, patterns);
+        this.singletons = new int[propertyNames.size()][];
+        for (int i = 0; i < singletons.length; i++) {
+            singletons[i] = new int[]{i};
+        }
+        List<KeywordValidator<?>> validators = new ArrayList<>(properties.values());
+        validators.addAll(patternProperties.values());
+        if (additionalProperties != null) {
+            this.additional = new int[]{validators.size()};
+            validators.add(additionalProperties);
+        } else {
+            this.additional = NONE;
+        }
+        this.validators = validators.toArray(new KeywordValidator[0]);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        ResettableValidationContext[] contexts = new ResettableValidationContext[validators.length];
+        for (int i = 0; i < validators.length; i++) {
+            contexts[i] = validators[i].newContext();
+        }
+        return new ValidationContext(contexts);
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        int id = token.currentTokenId();
+        if (context.depth == 0) {
+            if (id == JsonTokenId.ID_START_OBJECT) {
+                context.depth = 1;
+            } else {
+                context.validated = true;
+            }
+            return context;
+        }
+        if (context.depth == 1) {
+            if (id == JsonTokenId.ID_END_OBJECT) {
+                context.depth = 0;
+                context.validated = true;
+                return context;
+            }
+            if (id == JsonTokenId.ID_FIELD_NAME) {
+                int[] subschemas = subschemas(token);
+                for (int subschema : subschemas) {
+                    context.contexts[subschema].reset();
+                }
+                context.subschemas = subschemas;
+                return context;
+            }
+        }
+        int[] subschemas = context.subschemas;
+        for (int subschema : subschemas) {
+            if (!context.contexts[subschema].isValidated()) {
+                ResettableValidationContext value = validators[subschema].validate(context.contexts[subschema], token);
+                context.contexts[subschema] = value;
+                if (value.isValidated() && value.hasErrors()) {
+                    context.fail(subschema);
+                    return context;
+                }
+            }
+        }
+        if (id == JsonTokenId.ID_START_OBJECT || id == JsonTokenId.ID_START_ARRAY) {
+            context.depth++;
+        } else if (id == JsonTokenId.ID_END_OBJECT || id == JsonTokenId.ID_END_ARRAY) {
+            context.depth--;
+        }
+        if (context.depth == 1 && subschemas.length > 0) {
+            for (int subschema : subschemas) {
+                if (context.contexts[subschema].hasErrors()) {
+                    context.fail(subschema);
+                    return context;
+                }
+            }
+            context.subschemas = NONE;
+        }
+        return context;
+    }
+
+    /**
+     * @return indices of the subschemas of the field name token, shared between documents
+     */
+    private int[] subschemas(CurrentToken token) throws IOException {
+        if (automaton == null) {
+            int property = token.lookUp(names);
+            return property == UNCONSTRAINED ? additional : singletons[property];
+        }
+        int[] matched = automaton.match(token.getTextCharacters(), token.getTextOffset(), token.getTextLength());
+        return matched.length == 0 ? additional : matched;
+    }
+
+    /**
+     * @return names of the properties, in the order of subschemas
+     */
+    public List<String> getPropertyNames() {
+        List<String> propertyNames = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            propertyNames.add(names.name(i));
+        }
+        return propertyNames;
+    }
+
+    /**
+     * @return patterns of the properties, in the order of their subschemas following the names
+     */
+    public List<String> getPatterns() {
+        return Collections.unmodifiableList(patterns);
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final ResettableValidationContext[] contexts;
+        private int depth;
+        private int[] subschemas = NONE;
+        private int invalidProperty = UNCONSTRAINED;
+        private boolean validated;
+
+        private ValidationContext(ResettableValidationContext[] contexts) {
+            this.contexts = contexts;
+        }
+
+        private void fail(int property) {
+            invalidProperty = property;
+            validated = true;
+        }
+
+        /**
+         * @return index of the subschema the first invalid value failed, or -1 if there is none
+         */
+        public int getInvalidProperty() {
+            return invalidProperty;
+        }
+
+        @Override
+        public void reset() {
+            depth = 0;
+            subschemas = NONE;
+            invalidProperty = UNCONSTRAINED;
+            validated = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return invalidProperty != UNCONSTRAINED;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+        @Override
+        public boolean canSkipChildren() {
+            if (depth < 2) {
+                return false;
+            }
+            for (int subschema : subschemas) {
+                ResettableValidationContext value = contexts[subschema];
+                if (!value.isValidated() && !value.canSkipChildren()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
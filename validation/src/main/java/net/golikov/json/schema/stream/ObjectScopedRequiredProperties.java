@@ -0,0 +1,125 @@
+package net.golikov.json.schema.stream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-aware {@link IndexedRequiredProperties}: only field names of the root object are
+ * matched, requirements are settled when the root object ends (or as soon as all of them
+ * are found), and nested containers are reported as skippable.
+ */
+public class ObjectScopedRequiredProperties implements KeywordValidator<ObjectScopedRequiredProperties.ValidationContext> {
+
+    private static final int UNCONSTRAINED = -1;
+    private static final int ROOT_OBJECT = 0;
+
+    private final IndexedRequiredProperties requiredProperties;
+
+    public ObjectScopedRequiredProperties(List<String> requiredPropertyNames) {
+        this.requiredProperties = new IndexedRequiredProperties(requiredPropertyNames);
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext(requiredProperties.newContext());
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        switch (token.currentToken()) {
+            case START_OBJECT:
+                if (context.depth == 0) {
+                    context.push(ROOT_OBJECT);
+                    context.validated = !context.required.hasErrors();
+                } else {
+                    context.push(UNCONSTRAINED);
+                }
+                break;
+            case START_ARRAY:
+                if (context.depth == 0) {
+                    context.notAnObject();
+                } else {
+                    context.push(UNCONSTRAINED);
+                }
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                if (context.pop() == ROOT_OBJECT) {
+                    context.validated = true;
+                }
+                break;
+            case FIELD_NAME:
+                if (context.scope() == ROOT_OBJECT) {
+                    context.validated = !requiredProperties.validate(context.required, token).hasErrors();
+                }
+                break;
+            default:
+                if (context.depth == 0) {
+                    context.notAnObject();
+                }
+        }
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final IndexedRequiredProperties.ValidationContext required;
+        private int[] scopes = new int[8];
+        private int depth;
+        private boolean object = true;
+        private boolean validated;
+
+        private ValidationContext(IndexedRequiredProperties.ValidationContext required) {
+            this.required = required;
+        }
+
+        private void push(int scope) {
+            if (depth == scopes.length) {
+                scopes = Arrays.copyOf(scopes, depth * 2);
+            }
+            scopes[depth++] = scope;
+        }
+
+        private int pop() {
+            return scopes[--depth];
+        }
+
+        private int scope() {
+            return scopes[depth - 1];
+        }
+
+        private void notAnObject() {
+            object = false;
+            validated = true;
+        }
+
+        @Override
+        public void reset() {
+            required.reset();
+            depth = 0;
+            object = true;
+            validated = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return object && required.hasErrors();
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+        @Override
+        public boolean canSkipChildren() {
+            return depth > 0 && scopes[depth - 1] == UNCONSTRAINED;
+        }
+
+    }
+
+}
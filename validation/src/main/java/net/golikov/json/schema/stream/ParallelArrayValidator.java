@@ -0,0 +1,293 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Validates elements of a document consisting of one large root array in parallel.
+ * <p>
+ * The content of the array is cut into segments at guessed element boundaries: commas
+ * between a closing and an opening bracket, outside of what looks like a string when
+ * scanning from the nominal split point. Each segment is validated on its own as
+ * {@code [segment]}. A segment which starts at a real boundary parses only if it also ends
+ * at one, so segments are accepted in order and a segment that fails to parse is merged with
+ * the following ones and validated sequentially; results are therefore identical to the
+ * sequential validation.
+ */
+public class ParallelArrayValidator<C extends ResettableValidationContext> {
+
+    private static final int MIN_SEGMENT_SIZE = 1 << 16;
+
+    private final JsonFactory factory;
+    private final ArrayItems<C> items;
+    private final ForkJoinPool pool;
+    private final int segments;
+
+    public ParallelArrayValidator(JsonFactory factory, KeywordValidator<C> itemValidator) {
+        this(factory, itemValidator, ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism() * 4);
+    }
+
+    public ParallelArrayValidator(JsonFactory factory, KeywordValidator<C> itemValidator,
+                                  ForkJoinPool pool, int segments) {
+        this.factory = factory;
+        this.items = new ArrayItems<>(itemValidator);
+        this.pool = pool;
+        this.segments = segments;
+    }
+
+    /**
+     * @throws IOException if the document is not well-formed JSON
+     */
+    public Result validate(ByteBuffer document) throws IOException {
+        int start = document.position();
+        int end = document.limit();
+        while (start < end && isWhitespace(document.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(document.get(end - 1))) {
+            end--;
+        }
+        if (end - start < 2 || document.get(start) != '[' || document.get(end - 1) != ']') {
+            ArrayItems.ValidationContext<C> context = validateSequentially(document, start, end, false);
+            return new Result(context.getElements(),
+                    Arrays.stream(context.getInvalidElements()).asLongStream().toArray(), 0);
+        }
+        int[] bounds = split(document, start + 1, end - 1);
+        List<ForkJoinTask<Segment>> tasks = new ArrayList<>(bounds.length / 2);
+        for (int i = 0; i < bounds.length; i += 2) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            tasks.add(pool.submit(() -> validateSegment(document, from, to)));
+        }
+        long elements = 0;
+        long[] invalidElements = new long[0];
+        int fallbacks = 0;
+        int i = 0;
+        while (i < tasks.size()) {
+            Segment segment = join(tasks.get(i));
+            int last = i;
+            while (segment.error != null) {
+                if (++last == tasks.size()) {
+                    throw segment.error;
+                }
+                fallbacks++;
+                segment = validateSegment(document, bounds[2 * i], bounds[2 * last + 1]);
+            }
+            int[] invalid = segment.context.getInvalidElements();
+            int offset = invalidElements.length;
+            invalidElements = Arrays.copyOf(invalidElements, offset + invalid.length);
+            for (int j = 0; j < invalid.length; j++) {
+                invalidElements[offset + j] = elements + invalid[j];
+            }
+            elements += segment.context.getElements();
+            i = last + 1;
+        }
+        return new Result(elements, invalidElements, fallbacks);
+    }
+
+    /**
+     * @return pairs of segment bounds covering {@code [from, to)}, without the commas between them
+     */
+    private int[] split(ByteBuffer document, int from, int to) {
+        int count = (int) Math.max(1, Math.min(segments, (long) (to - from) / MIN_SEGMENT_SIZE));
+        int[] bounds = new int[2 * count];
+        int found = 0;
+        int segmentStart = from;
+        for (int i = 1; i < count; i++) {
+            long nominal = from + (long) (to - from) * i / count;
+            int comma = nextBoundary(document, (int) Math.max(nominal, segmentStart), to);
+            if (comma < 0) {
+                break;
+            }
+            bounds[found++] = segmentStart;
+            bounds[found++] = comma;
+            segmentStart = comma + 1;
+        }
+        bounds[found++] = segmentStart;
+        bounds[found++] = to;
+        return Arrays.copyOf(bounds, found);
+    }
+
+    private static int nextBoundary(ByteBuffer document, int from, int to) {
+        boolean inString = false;
+        for (int i = from; i < to; i++) {
+            byte b = document.get(i);
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == ',' && isBoundary(document, i, to)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBoundary(ByteBuffer document, int comma, int to) {
+        int before = comma - 1;
+        while (before >= 0 && isWhitespace(document.get(before))) {
+            before--;
+        }
+        int after = comma + 1;
+        while (after < to && isWhitespace(document.get(after))) {
+            after++;
+        }
+        return before >= 0 && after < to
+                && (document.get(before) == '}' || document.get(before) == ']')
+                && (document.get(after) == '{' || document.get(after) == '[');
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private Segment validateSegment(ByteBuffer document, int from, int to) throws IOException {
+        try {
+            return new Segment(validateSequentially(document, from, to, true), null);
+        } catch (JsonProcessingException e) {
+            return new Segment(null, e);
+        }
+    }
+
+    private ArrayItems.ValidationContext<C> validateSequentially(ByteBuffer document, int from, int to,
+                                                                 boolean bracketed) throws IOException {
+        ArrayItems.ValidationContext<C> context = items.newContext();
+        try (JsonParser parser = factory.createParser(new SliceInputStream(document, from, to, bracketed))) {
+            new StreamValidator<>(items).validate(context, parser);
+            if (bracketed && parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the root array");
+            }
+        }
+        return context;
+    }
+
+    private Segment join(ForkJoinTask<Segment> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    private final class Segment {
+
+        private final ArrayItems.ValidationContext<C> context;
+        private final JsonProcessingException error;
+
+        private Segment(ArrayItems.ValidationContext<C> context, JsonProcessingException error) {
+            this.context = context;
+            this.error = error;
+        }
+
+    }
+
+    /**
+     * Reads a slice of a buffer, optionally enclosed in square brackets.
+     */
+    private static final class SliceInputStream extends InputStream {
+
+        private final ByteBuffer slice;
+        private boolean open;
+        private boolean close;
+
+        private SliceInputStream(ByteBuffer document, int from, int to, boolean bracketed) {
+            ByteBuffer slice = document.duplicate();
+            slice.limit(to).position(from);
+            this.slice = slice;
+            this.open = bracketed;
+            this.close = bracketed;
+        }
+
+        @Override
+        public int read() {
+            if (open) {
+                open = false;
+                return '[';
+            }
+            if (slice.hasRemaining()) {
+                return slice.get() & 0xFF;
+            }
+            if (close) {
+                close = false;
+                return ']';
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (open || !slice.hasRemaining()) {
+                int b = read();
+                if (b < 0) {
+                    return -1;
+                }
+                bytes[offset] = (byte) b;
+                return 1;
+            }
+            int count = Math.min(length, slice.remaining());
+            slice.get(bytes, offset, count);
+            return count;
+        }
+
+    }
+
+    public static final class Result {
+
+        private final long elements;
+        private final long[] invalidElements;
+        private final int fallbacks;
+
+        private Result(long elements, long[] invalidElements, int fallbacks) {
+            this.elements = elements;
+            this.invalidElements = invalidElements;
+            this.fallbacks = fallbacks;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        /**
+         * @return indices of invalid elements of the root array, in ascending order
+         */
+        public long[] getInvalidElements() {
+            return invalidElements.clone();
+        }
+
+        public boolean hasErrors() {
+            return invalidElements.length > 0;
+        }
+
+        /**
+         * @return number of times a guessed boundary turned out wrong and segments
+         *   had to be merged and validated sequentially
+         */
+        public int getFallbacks() {
+            return fallbacks;
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal {@link CurrentToken} view of a parser for the validation loop. Unlike
+ * {@link JsonParserWrapper} it is not a {@link JsonParser} itself: it is final and only
+ * forwards the few accessors validators use, so calls through it stay small enough to inline.
+ */
+public final class ParserToken implements CurrentToken {
+
+    private JsonParser parser;
+
+    public ParserToken(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Points this view to another parser, so that it can be reused across documents.
+     */
+    public void wrap(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return parser.currentToken();
+    }
+
+    @Override
+    public int currentTokenId() {
+        return parser.currentTokenId();
+    }
+
+    @Override
+    public String getText() throws IOException {
+        return parser.getText();
+    }
+
+    @Override
+    public int getText(Writer writer) throws IOException {
+        return parser.getText(writer);
+    }
+
+    @Override
+    public char[] getTextCharacters() throws IOException {
+        return parser.getTextCharacters();
+    }
+
+    @Override
+    public int getTextLength() throws IOException {
+        return parser.getTextLength();
+    }
+
+    @Override
+    public int getTextOffset() throws IOException {
+        return parser.getTextOffset();
+    }
+
+    @Override
+    public JsonParser.NumberType getNumberType() throws IOException {
+        return parser.getNumberType();
+    }
+
+}
@@ -0,0 +1,394 @@
+package net.golikov.json.schema.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recursive descent parser of the regular subset of ECMA-262 patterns: literals, {@code .},
+ * character classes and class escapes, {@code ^} and {@code $}, groups, alternation and
+ * bounded quantifiers. Patterns whose repetitions expand into more than {@value #MAX_EXPANDED_SIZE}
+ * automaton states, such as nested bounded repeats, are rejected while parsing. Patterns are read as sequences of UTF-16 units, as without the
+ * {@code u} flag. Word boundaries, backreferences, lookarounds and other escapes which cannot
+ * be matched by a finite automaton make {@link #parse} throw {@link UnsupportedPatternException}.
+ */
+final class PatternParser {
+
+    /**
+     * Largest count of a bounded quantifier, above which the automaton grows too large.
+     */
+    static final int MAX_REPETITIONS = 100;
+
+    /**
+     * Largest number of automaton states a pattern may expand into with its repetitions unrolled.
+     */
+    static final int MAX_EXPANDED_SIZE = 1_000;
+
+    private final String pattern;
+    private int position;
+    private CharRanges classEscape;
+
+    private PatternParser(String pattern) {
+        this.pattern = pattern;
+    }
+
+    static Node parse(String pattern) {
+        PatternParser parser = new PatternParser(pattern);
+        Node node = parser.alternation();
+        if (parser.position < pattern.length()) {
+            throw parser.unsupported("unmatched )");
+        }
+        return node;
+    }
+
+    private Node alternation() {
+        List<Node> alternatives = new ArrayList<>(1);
+        alternatives.add(sequence());
+        while (position < pattern.length() && pattern.charAt(position) == '|') {
+            position++;
+            alternatives.add(sequence());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : expanded(new Node(Kind.ALTERNATION, alternatives));
+    }
+
+    private Node sequence() {
+        List<Node> terms = new ArrayList<>();
+        while (position < pattern.length() && pattern.charAt(position) != '|' && pattern.charAt(position) != ')') {
+            terms.add(quantified(atom()));
+        }
+        return terms.size() == 1 ? terms.get(0) : expanded(new Node(Kind.SEQUENCE, terms));
+    }
+
+    private Node atom() {
+        char c = pattern.charAt(position++);
+        switch (c) {
+            case '^':
+                return new Node(Kind.BEGIN, Collections.emptyList());
+            case '$':
+                return new Node(Kind.END, Collections.emptyList());
+            case '.':
+                return new Node(CharRanges.LINE_TERMINATORS.negate());
+            case '(':
+                return group();
+            case '[':
+                return new Node(characterClass());
+            case '\\':
+                return new Node(escape(false));
+            case '*':
+            case '+':
+            case '?':
+                throw unsupported("nothing to repeat");
+            case '{':
+                if (quantifierEnd(position - 1) > 0) {
+                    throw unsupported("nothing to repeat");
+                }
+                return new Node(CharRanges.of(c, c));
+            default:
+                return new Node(CharRanges.of(c, c));
+        }
+    }
+
+    private Node group() {
+        if (pattern.startsWith("?:", position)) {
+            position += 2;
+        } else if (pattern.startsWith("?<", position) && position + 2 < pattern.length()
+                && pattern.charAt(position + 2) != '=' && pattern.charAt(position + 2) != '!') {
+            int end = pattern.indexOf('>', position);
+            if (end < 0) {
+                throw unsupported("unterminated group name");
+            }
+            position = end + 1;
+        } else if (pattern.startsWith("?", position)) {
+            throw unsupported("lookaround");
+        }
+        Node body = alternation();
+        if (position >= pattern.length()) {
+            throw unsupported("unterminated group");
+        }
+        position++;
+        return body;
+    }
+
+    private Node quantified(Node atom) {
+        if (position >= pattern.length()) {
+            return atom;
+        }
+        int min;
+        int max;
+        switch (pattern.charAt(position)) {
+            case '*':
+                min = 0;
+                max = -1;
+                position++;
+                break;
+            case '+':
+                min = 1;
+                max = -1;
+                position++;
+                break;
+            case '?':
+                min = 0;
+                max = 1;
+                position++;
+                break;
+            case '{':
+                int end = quantifierEnd(position);
+                if (end < 0) {
+                    return atom;
+                }
+                String[] bounds = pattern.substring(position + 1, end).split(",", -1);
+                min = count(bounds[0]);
+                max = bounds.length == 1 ? min : bounds[1].isEmpty() ? -1 : count(bounds[1]);
+                if (max >= 0 && max < min) {
+                    throw unsupported("numbers out of order in quantifier");
+                }
+                position = end + 1;
+                break;
+            default:
+                return atom;
+        }
+        if (position < pattern.length() && pattern.charAt(position) == '?') {
+            position++;
+        }
+        return expanded(new Node(atom, min, max));
+    }
+
+    /**
+     * @return the node, unless it expands into too many states to build an automaton of it
+     */
+    private Node expanded(Node node) {
+        if (node.size > MAX_EXPANDED_SIZE) {
+            throw unsupported("repetitions expanding above " + MAX_EXPANDED_SIZE + " states");
+        }
+        return node;
+    }
+
+    /**
+     * @return index of the closing brace of a {@code {n}}, {@code {n,}} or {@code {n,m}} quantifier
+     *   starting at {@code start}, or {@code -1} if the brace is a literal
+     */
+    private int quantifierEnd(int start) {
+        int i = start + 1;
+        int digits = 0;
+        while (i < pattern.length() && pattern.charAt(i) >= '0' && pattern.charAt(i) <= '9') {
+            i++;
+            digits++;
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        if (i < pattern.length() && pattern.charAt(i) == ',') {
+            i++;
+            while (i < pattern.length() && pattern.charAt(i) >= '0' && pattern.charAt(i) <= '9') {
+                i++;
+            }
+        }
+        return i < pattern.length() && pattern.charAt(i) == '}' ? i : -1;
+    }
+
+    private int count(String digits) {
+        if (digits.length() > 3 || Integer.parseInt(digits) > MAX_REPETITIONS) {
+            throw unsupported("quantifier above " + MAX_REPETITIONS);
+        }
+        return Integer.parseInt(digits);
+    }
+
+    private CharRanges characterClass() {
+        boolean negated = position < pattern.length() && pattern.charAt(position) == '^';
+        if (negated) {
+            position++;
+        }
+        CharRanges ranges = CharRanges.EMPTY;
+        while (true) {
+            if (position >= pattern.length()) {
+                throw unsupported("unterminated character class");
+            }
+            if (pattern.charAt(position) == ']') {
+                position++;
+                break;
+            }
+            int first = classAtom();
+            if (first >= 0 && position + 1 < pattern.length() && pattern.charAt(position) == '-'
+                    && pattern.charAt(position + 1) != ']') {
+                position++;
+                int last = classAtom();
+                if (last < 0) {
+                    throw unsupported("class escape in range");
+                }
+                if (last < first) {
+                    throw unsupported("range out of order in character class");
+                }
+                ranges = ranges.union(CharRanges.of((char) first, (char) last));
+            } else {
+                ranges = ranges.union(first >= 0 ? CharRanges.of((char) first, (char) first) : classEscape);
+            }
+        }
+        return negated ? ranges.negate() : ranges;
+    }
+
+    /**
+     * @return unit of a single character class member, or {@code -1} for a class escape,
+     *   whose units are left in {@link #classEscape}
+     */
+    private int classAtom() {
+        char c = pattern.charAt(position++);
+        if (Character.isSurrogate(c)) {
+            throw unsupported("surrogate in character class");
+        }
+        if (c != '\\') {
+            return c;
+        }
+        CharRanges ranges = escape(true);
+        classEscape = ranges;
+        return ranges.single();
+    }
+
+    private CharRanges escape(boolean inClass) {
+        if (position >= pattern.length()) {
+            throw unsupported("trailing backslash");
+        }
+        char c = pattern.charAt(position++);
+        switch (c) {
+            case 'd':
+                return CharRanges.DIGITS;
+            case 'D':
+                return CharRanges.DIGITS.negate();
+            case 'w':
+                return CharRanges.WORD;
+            case 'W':
+                return CharRanges.WORD.negate();
+            case 's':
+                return CharRanges.WHITESPACE;
+            case 'S':
+                return CharRanges.WHITESPACE.negate();
+            case 't':
+                return single('\t');
+            case 'n':
+                return single('\n');
+            case 'r':
+                return single('\r');
+            case 'f':
+                return single('\f');
+            case 'v':
+                return single((char) 0x0b);
+            case 'b':
+                if (inClass) {
+                    return single('\b');
+                }
+                throw unsupported("word boundary");
+            case '0':
+                if (position < pattern.length() && pattern.charAt(position) >= '0' && pattern.charAt(position) <= '9') {
+                    throw unsupported("octal escape");
+                }
+                return single((char) 0);
+            case 'x':
+                return single(hex(2));
+            case 'u':
+                return single(hex(4));
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw unsupported("escape \\" + c);
+                }
+                return single(c);
+        }
+    }
+
+    private char hex(int digits) {
+        if (position + digits > pattern.length()) {
+            throw unsupported("incomplete hexadecimal escape");
+        }
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            int digit = Character.digit(pattern.charAt(position++), 16);
+            if (digit < 0) {
+                throw unsupported("incomplete hexadecimal escape");
+            }
+            value = value << 4 | digit;
+        }
+        return (char) value;
+    }
+
+    private static CharRanges single(char c) {
+        return CharRanges.of(c, c);
+    }
+
+    private UnsupportedPatternException unsupported(String reason) {
+        return new UnsupportedPatternException(String.format("%s near index %d of %s", reason, position, pattern));
+    }
+
+    enum Kind {
+        CHARS,
+        BEGIN,
+        END,
+        SEQUENCE,
+        ALTERNATION,
+        REPEAT
+    }
+
+    /**
+     * Node of a parsed pattern; repetitions without upper bound have {@code max} of {@code -1}.
+     * The size is the number of automaton states the node is built into.
+     */
+    static final class Node {
+
+        final Kind kind;
+        final CharRanges chars;
+        final List<Node> children;
+        final int min;
+        final int max;
+        final long size;
+
+        private Node(Kind kind, List<Node> children) {
+            this(kind, null, children, 1, 1);
+        }
+
+        private Node(CharRanges chars) {
+            this(Kind.CHARS, chars, Collections.emptyList(), 1, 1);
+        }
+
+        private Node(Node repeated, int min, int max) {
+            this(Kind.REPEAT, null, Collections.singletonList(repeated), min, max);
+        }
+
+        private Node(Kind kind, CharRanges chars, List<Node> children, int min, int max) {
+            this.kind = kind;
+            this.chars = chars;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+            this.size = size();
+        }
+
+        private long size() {
+            long size = 0;
+            for (Node child : children) {
+                size += child.size;
+            }
+            switch (kind) {
+                case ALTERNATION:
+                    return size + 1;
+                case SEQUENCE:
+                    return size;
+                case REPEAT:
+                    return max < 0 ? size * (min + 1) + 1 : size * max + max - min;
+                default:
+                    return 1;
+            }
+        }
+
+    }
+
+    /**
+     * Thrown for patterns outside of the supported subset, which are left to {@link java.util.regex}.
+     */
+    static final class UnsupportedPatternException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedPatternException(String message) {
+            super(message, null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,473 @@
+package net.golikov.json.schema.stream;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable deterministic automaton matching a property name against literal names and
+ * ECMA-262 patterns at once. Names get ids from {@code 0} in list order and patterns follow
+ * them; a pattern matches a name when it matches anywhere in it, as {@link java.util.regex.Matcher#find()}
+ * does. The name is read once from a char buffer, one table lookup per UTF-16 unit, until
+ * the result cannot change any more, and the ids it matches are returned as a shared array,
+ * so matching allocates nothing. Besides property names, it searches string values for the
+ * {@code pattern} keyword.
+ * <p>
+ * Units are mapped to the classes of units no pattern distinguishes, which keeps the
+ * transition table small. Patterns outside of the subset supported by {@link PatternParser},
+ * patterns beyond a total expanded size of {@value #MAX_SIZE}, and patterns whose combination
+ * would exceed {@value #MAX_STATES} states, are matched with
+ * {@link java.util.regex} after the automaton; only those lookups allocate.
+ */
+public final class PropertyNameAutomaton {
+
+    private static final int MAX_STATES = 10_000;
+    private static final int MAX_SIZE = 2 * PatternParser.MAX_EXPANDED_SIZE;
+    private static final int DEAD = -1;
+    private static final int[] NONE = new int[0];
+
+    private static final int CHARS = 0;
+    private static final int EPSILON = 1;
+    private static final int BEGIN = 2;
+    private static final int END = 3;
+    private static final int ACCEPT = 4;
+
+    private final int[] asciiClasses;
+    private final int[] boundaries;
+    private final int classes;
+    private final int[] transitions;
+    private final int[][] accepted;
+    private final Pattern[] fallbacks;
+    private final int[] fallbackIds;
+
+    /**
+     * @throws PatternSyntaxException if a pattern is not a valid regular expression
+     */
+    public PropertyNameAutomaton(List<String> names, List<String> patterns) {
+        PatternParser.Node[] parsed = new PatternParser.Node[patterns.size()];
+        List<Integer> unsupported = new ArrayList<>(0);
+        for (int i = 0; i < parsed.length; i++) {
+            try {
+                parsed[i] = PatternParser.parse(patterns.get(i));
+            } catch (PatternParser.UnsupportedPatternException e) {
+                unsupported.add(i);
+            }
+        }
+        List<Integer> movable = new ArrayList<>();
+        long size = 0;
+        for (int i = 0; i < parsed.length; i++) {
+            if (parsed[i] != null && compiles(patterns.get(i))) {
+                if (size + parsed[i].size > MAX_SIZE) {
+                    // building the automaton takes time growing with the size of every state of it
+                    parsed[i] = null;
+                    unsupported.add(i);
+                    continue;
+                }
+                size += parsed[i].size;
+                movable.add(i);
+            }
+        }
+        Builder builder = new Builder(names, parsed);
+        while (!builder.build(movable.isEmpty() ? Integer.MAX_VALUE : MAX_STATES)) {
+            // leave the later half of the patterns java.util.regex can compile to it, until the rest fits
+            List<Integer> moved = movable.subList(movable.size() / 2, movable.size());
+            for (int i : moved) {
+                parsed[i] = null;
+                unsupported.add(i);
+            }
+            moved.clear();
+            builder = new Builder(names, parsed);
+        }
+        unsupported.sort(null);
+        this.fallbacks = new Pattern[unsupported.size()];
+        this.fallbackIds = new int[unsupported.size()];
+        for (int i = 0; i < fallbacks.length; i++) {
+            fallbacks[i] = Pattern.compile(patterns.get(unsupported.get(i)));
+            fallbackIds[i] = names.size() + unsupported.get(i);
+        }
+        this.boundaries = builder.boundaries;
+        this.classes = boundaries.length;
+        this.asciiClasses = new int[128];
+        for (int c = 0; c < asciiClasses.length; c++) {
+            asciiClasses[c] = classOf(c);
+        }
+        this.transitions = Arrays.copyOf(builder.transitions, builder.sets.size() * classes);
+        this.accepted = builder.accepted.toArray(new int[0][]);
+        encodeAbsorbingStates();
+    }
+
+    /**
+     * Replaces transitions to states which only loop to themselves with negative codes, so
+     * that matching stops as soon as its result cannot change.
+     */
+    private void encodeAbsorbingStates() {
+        boolean[] absorbing = new boolean[accepted.length];
+        for (int state = 0; state < absorbing.length; state++) {
+            absorbing[state] = true;
+            for (int unit = 0; unit < classes && absorbing[state]; unit++) {
+                absorbing[state] = transitions[state * classes + unit] == state;
+            }
+        }
+        for (int i = 0; i < transitions.length; i++) {
+            if (transitions[i] != DEAD && absorbing[transitions[i]]) {
+                transitions[i] = absorbed(transitions[i]);
+            }
+        }
+    }
+
+    private static int absorbed(int state) {
+        return DEAD - 1 - state;
+    }
+
+    /**
+     * Checks that a pattern is either supported by the automaton or compiled by {@link java.util.regex}.
+     *
+     * @throws PatternSyntaxException if the pattern is not a valid regular expression
+     */
+    public static void checkPattern(String pattern) {
+        try {
+            PatternParser.parse(pattern);
+        } catch (PatternParser.UnsupportedPatternException e) {
+            Pattern.compile(pattern);
+        }
+    }
+
+    private static boolean compiles(String pattern) {
+        try {
+            Pattern.compile(pattern);
+            return true;
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return sorted ids of the names and patterns matching {@code text[offset, offset + length)},
+     *   empty if there are none; the array is shared and must not be modified
+     */
+    public int[] match(char[] text, int offset, int length) {
+        int state = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = text[i];
+            state = transitions[state * classes + (c < 128 ? asciiClasses[c] : classOf(c))];
+            if (state < 0) {
+                if (state == DEAD) {
+                    return fallbacks.length == 0 ? NONE : withFallbacks(NONE, text, offset, length);
+                }
+                state = absorbed(state);
+                break;
+            }
+        }
+        return fallbacks.length == 0 ? accepted[state] : withFallbacks(accepted[state], text, offset, length);
+    }
+
+    private int[] withFallbacks(int[] ids, char[] text, int offset, int length) {
+        int[] matched = Arrays.copyOf(ids, ids.length + fallbacks.length);
+        int size = ids.length;
+        CharBuffer name = CharBuffer.wrap(text, offset, length);
+        for (int i = 0; i < fallbacks.length; i++) {
+            if (fallbacks[i].matcher(name).find()) {
+                matched[size++] = fallbackIds[i];
+            }
+        }
+        if (size == ids.length) {
+            return ids;
+        }
+        Arrays.sort(matched, 0, size);
+        return Arrays.copyOf(matched, size);
+    }
+
+    private int classOf(int c) {
+        int index = Arrays.binarySearch(boundaries, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Thompson construction of a nondeterministic automaton, then subset construction over
+     * unit classes. The states are built backwards, each from the state following it.
+     */
+    private static final class Builder {
+
+        private final List<State> nfa = new ArrayList<>();
+        private final int[] starts;
+        private int[] boundaries;
+        /**
+         * Non-initial states by their sets; the initial state accepts past {@code ^}, so a later
+         * state with the same set gets its own.
+         */
+        private final Map<Key, Integer> states = new HashMap<>();
+        private final List<int[]> sets = new ArrayList<>();
+        private final List<int[]> accepted = new ArrayList<>();
+        private int[] transitions = new int[0];
+        private int[] visited;
+        private int[] stack;
+        private int[] closure;
+        private int generation;
+
+        Builder(List<String> names, PatternParser.Node[] patterns) {
+            List<Integer> starts = new ArrayList<>();
+            for (int id = 0; id < names.size(); id++) {
+                String name = names.get(id);
+                int next = add(new State(END, add(new State(ACCEPT, id))));
+                for (int i = name.length() - 1; i >= 0; i--) {
+                    next = add(new State(CharRanges.of(name.charAt(i), name.charAt(i)), next));
+                }
+                starts.add(add(new State(BEGIN, next)));
+            }
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i] == null) {
+                    continue;
+                }
+                State tail = new State(EPSILON, DEAD);
+                int tailIndex = add(tail);
+                tail.targets = new int[]{add(new State(ACCEPT, names.size() + i)),
+                        add(new State(CharRanges.ALL, tailIndex))};
+                int first = nfa.size();
+                State head = new State(EPSILON, DEAD);
+                int headIndex = add(head);
+                head.targets = new int[]{build(patterns[i], tailIndex), add(new State(CharRanges.ALL, headIndex))};
+                starts.add(headIndex);
+                for (int state = first; state < nfa.size(); state++) {
+                    nfa.get(state).tail = tailIndex;
+                }
+            }
+            this.starts = starts.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int build(PatternParser.Node node, int next) {
+            switch (node.kind) {
+                case CHARS:
+                    return add(new State(node.chars, next));
+                case BEGIN:
+                    return add(new State(BEGIN, next));
+                case END:
+                    return add(new State(END, next));
+                case SEQUENCE:
+                    for (int i = node.children.size() - 1; i >= 0; i--) {
+                        next = build(node.children.get(i), next);
+                    }
+                    return next;
+                case ALTERNATION:
+                    State alternation = new State(EPSILON, DEAD);
+                    alternation.targets = new int[node.children.size()];
+                    for (int i = 0; i < alternation.targets.length; i++) {
+                        alternation.targets[i] = build(node.children.get(i), next);
+                    }
+                    return add(alternation);
+                default:
+                    PatternParser.Node repeated = node.children.get(0);
+                    int current = next;
+                    if (node.max < 0) {
+                        State loop = new State(EPSILON, DEAD);
+                        current = add(loop);
+                        loop.targets = new int[]{build(repeated, current), next};
+                    } else {
+                        for (int i = node.min; i < node.max; i++) {
+                            State optional = new State(EPSILON, DEAD);
+                            optional.targets = new int[]{build(repeated, current), next};
+                            current = add(optional);
+                        }
+                    }
+                    for (int i = 0; i < node.min; i++) {
+                        current = build(repeated, current);
+                    }
+                    return current;
+            }
+        }
+
+        private int add(State state) {
+            nfa.add(state);
+            return nfa.size() - 1;
+        }
+
+        /**
+         * @return whether the automaton fits into the limit of states
+         */
+        boolean build(int limit) {
+            TreeSet<Integer> units = new TreeSet<>();
+            units.add((int) Character.MIN_VALUE);
+            for (State state : nfa) {
+                if (state.kind == CHARS) {
+                    state.chars.boundaries(units::add);
+                }
+            }
+            units.remove(Character.MAX_VALUE + 1);
+            boundaries = units.stream().mapToInt(Integer::intValue).toArray();
+            visited = new int[nfa.size()];
+            stack = new int[nfa.size()];
+            closure = new int[nfa.size()];
+            add(closure(starts, starts.length, true));
+            int[] next = new int[nfa.size()];
+            for (int state = 0; state < sets.size(); state++) {
+                int[] set = sets.get(state);
+                for (int unit = 0; unit < boundaries.length; unit++) {
+                    int size = 0;
+                    for (int member : set) {
+                        State nfaState = nfa.get(member);
+                        if (nfaState.kind == CHARS && nfaState.chars.contains(boundaries[unit])) {
+                            next[size++] = nfaState.next;
+                        }
+                    }
+                    int target = DEAD;
+                    if (size > 0) {
+                        int[] reached = closure(next, size, false);
+                        Integer known = states.get(new Key(reached));
+                        target = known != null ? known : add(reached);
+                        if (target >= limit) {
+                            return false;
+                        }
+                    }
+                    transitions[state * boundaries.length + unit] = target;
+                }
+            }
+            return true;
+        }
+
+        private int add(int[] set) {
+            int state = sets.size();
+            accepted.add(accepted(set, state == 0));
+            if (state > 0) {
+                states.put(new Key(set), state);
+            }
+            sets.add(set);
+            if (transitions.length < sets.size() * boundaries.length) {
+                transitions = Arrays.copyOf(transitions, Math.max(transitions.length * 2, sets.size() * boundaries.length));
+            }
+            return state;
+        }
+
+        /**
+         * @return sorted ids accepted if the input ends in the state with the set; {@code ^}
+         *   may be passed only in the initial state
+         */
+        private int[] accepted(int[] set, boolean initial) {
+            generation++;
+            int size = 0;
+            for (int member : set) {
+                size = push(size, member);
+            }
+            TreeSet<Integer> ids = new TreeSet<>();
+            while (size > 0) {
+                State state = nfa.get(stack[--size]);
+                if (state.kind == ACCEPT) {
+                    ids.add(state.next);
+                } else if (state.kind == END || state.kind == BEGIN && initial) {
+                    size = push(size, state.next);
+                } else if (state.kind == EPSILON) {
+                    for (int target : state.targets) {
+                        size = push(size, target);
+                    }
+                }
+            }
+            return ids.isEmpty() ? NONE : ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * @return sorted states reachable without reading a unit, past {@code ^} only at the
+         *   start of input; states waiting for a unit, for the end of input or accepting are kept,
+         *   except for states of patterns which have already matched, so that a state where every
+         *   pattern has either matched or cannot match any more loops to itself
+         */
+        private int[] closure(int[] seeds, int count, boolean begin) {
+            generation++;
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                size = push(size, seeds[i]);
+            }
+            int members = 0;
+            while (size > 0) {
+                int member = stack[--size];
+                State state = nfa.get(member);
+                if (state.kind == EPSILON) {
+                    for (int target : state.targets) {
+                        size = push(size, target);
+                    }
+                } else if (state.kind == BEGIN) {
+                    if (begin) {
+                        size = push(size, state.next);
+                    }
+                } else {
+                    closure[members++] = member;
+                }
+            }
+            int kept = 0;
+            for (int i = 0; i < members; i++) {
+                int tail = nfa.get(closure[i]).tail;
+                if (tail < 0 || visited[tail] != generation) {
+                    closure[kept++] = closure[i];
+                }
+            }
+            int[] sorted = Arrays.copyOf(closure, kept);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private int push(int size, int member) {
+            if (visited[member] == generation) {
+                return size;
+            }
+            visited[member] = generation;
+            stack[size] = member;
+            return size + 1;
+        }
+
+    }
+
+    /**
+     * State of the nondeterministic automaton; the id of an accepting state is kept in {@code next}.
+     */
+    private static final class State {
+
+        final int kind;
+        final CharRanges chars;
+        final int next;
+        int[] targets;
+        /**
+         * Tail of the pattern the state belongs to, reached once the pattern has matched; {@code -1}
+         * for states of names and for the states following the tail.
+         */
+        int tail = -1;
+
+        State(int kind, int next) {
+            this.kind = kind;
+            this.chars = null;
+            this.next = next;
+        }
+
+        State(CharRanges chars, int next) {
+            this.kind = CHARS;
+            this.chars = chars;
+            this.next = next;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final int[] members;
+        private final int hash;
+
+        Key(int[] members) {
+            this.members = members;
+            this.hash = Arrays.hashCode(members);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(members, ((Key) other).members);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package net.golikov.json.schema.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Immutable open addressing table from property names to their indices in the
+ * list the table was built from. Lookups accept a slice of a char buffer, so field
+ * names can be resolved straight from {@link CurrentToken#getTextCharacters()}
+ * without creating a String, or a slice of UTF-8 encoded bytes.
+ */
+public final class PropertyNameTable {
+
+    private final String[] names;
+    private final char[][] keys;
+    private final int[] indices;
+    private final int mask;
+
+    public PropertyNameTable(List<String> names) {
+        this.names = names.toArray(new String[0]);
+        int capacity = Integer.highestOneBit(Math.max(this.names.length, 1) * 2 - 1) << 1;
+        this.keys = new char[capacity][];
+        this.indices = new int[capacity];
+        this.mask = capacity - 1;
+        for (int index = 0; index < this.names.length; index++) {
+            char[] key = this.names[index].toCharArray();
+            int slot = hash(key, 0, key.length) & mask;
+            while (keys[slot] != null) {
+                if (equals(keys[slot], key, 0, key.length)) {
+                    throw new IllegalArgumentException(String.format("Duplicate property name \"%s\"",
+                            this.names[index]));
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            indices[slot] = index;
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public int indexOf(String name) {
+        char[] chars = name.toCharArray();
+        return indexOf(chars, 0, chars.length);
+    }
+
+    /**
+     * @return index of the name stored in {@code chars[offset, offset + length)},
+     *   or {@code -1} if the table does not contain it
+     */
+    public int indexOf(char[] chars, int offset, int length) {
+        int slot = hash(chars, offset, length) & mask;
+        char[] key;
+        while ((key = keys[slot]) != null) {
+            if (equals(key, chars, offset, length)) {
+                return indices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the name encoded as UTF-8 in {@code utf8[offset, offset + length)},
+     *   or {@code -1} if the table does not contain it; ASCII names are compared byte by byte
+     */
+    public int indexOf(byte[] utf8, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = utf8[i];
+            if (b < 0) {
+                return indexOf(new String(utf8, offset, length, StandardCharsets.UTF_8));
+            }
+            hash = 31 * hash + b;
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        char[] key;
+        while ((key = keys[slot]) != null) {
+            if (equals(key, utf8, offset, length)) {
+                return indices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(char[] key, char[] chars, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(char[] key, byte[] utf8, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != utf8[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
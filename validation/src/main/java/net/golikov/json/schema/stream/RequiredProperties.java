@@ -6,8 +6,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-public class RequiredProperties {
+public class RequiredProperties implements Validator<RequiredProperties.ValidationContext> {
 
+    @Override
     public RequiredProperties.ValidationContext validate(RequiredProperties.ValidationContext context, CurrentToken token) throws IOException {
         if (context.notFoundYet.isEmpty()) {
             return context;
@@ -0,0 +1,9 @@
+package net.golikov.json.schema.stream;
+
+public interface ResettableValidationContext extends ValidationContext {
+    /**
+     * Returns the context to the state of a freshly created one, so it can be reused
+     * for the next document.
+     */
+    void reset();
+}
@@ -0,0 +1,45 @@
+package net.golikov.json.schema.stream;
+
+/**
+ * Byte at a time {@link StructuralScanner}, used when the Vector API is not available.
+ */
+final class ScalarStructuralScanner implements StructuralScanner {
+
+    private static final byte QUOTE = 1;
+    private static final byte BACKSLASH = 2;
+    private static final byte STRUCTURAL = 3;
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        CLASSES['"'] = QUOTE;
+        CLASSES['\\'] = BACKSLASH;
+        for (char c : "{}[]:,".toCharArray()) {
+            CLASSES[c] = STRUCTURAL;
+        }
+    }
+
+    @Override
+    public void scan(byte[] input, int at, long[] masks) {
+        long quotes = 0;
+        long backslashes = 0;
+        long structurals = 0;
+        for (int i = 0; i < 64; i++) {
+            switch (CLASSES[input[at + i] & 0xFF]) {
+                case QUOTE:
+                    quotes |= 1L << i;
+                    break;
+                case BACKSLASH:
+                    backslashes |= 1L << i;
+                    break;
+                case STRUCTURAL:
+                    structurals |= 1L << i;
+                    break;
+                default:
+            }
+        }
+        masks[QUOTES] = quotes;
+        masks[BACKSLASHES] = backslashes;
+        masks[STRUCTURALS] = structurals;
+    }
+
+}
@@ -0,0 +1,65 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Token loop driving a {@link Validator} over one root value of a parser. The loop stops
+ * as soon as the context is validated and skips subtrees the context has no constraints for.
+ */
+public class StreamValidator<C extends ValidationContext> {
+
+    private final Validator<C> validator;
+
+    public StreamValidator(Validator<C> validator) {
+        this.validator = validator;
+    }
+
+    public C validate(C context, JsonParserWrapper parser) throws IOException {
+        return validate(context, parser, parser);
+    }
+
+    public C validate(C context, JsonParser parser) throws IOException {
+        return validate(context, parser, new ParserToken(parser));
+    }
+
+    /**
+     * @param token view of the parser passed to the validator
+     */
+    public C validate(C context, JsonParser parser, CurrentToken token) throws IOException {
+        JsonToken current = parser.nextToken();
+        while (current != null) {
+            context = validator.validate(context, token);
+            if (context.isValidated() || parser.getParsingContext().inRoot()) {
+                break;
+            }
+            if (current.isStructStart() && context.canSkipChildren()) {
+                parser.skipChildren();
+                current = parser.currentToken();
+            } else {
+                current = parser.nextToken();
+            }
+        }
+        return context;
+    }
+
+    public C validate(C context, Utf8Tokenizer tokenizer) throws IOException {
+        JsonToken current = tokenizer.nextToken();
+        while (current != null) {
+            context = validator.validate(context, tokenizer);
+            if (context.isValidated() || tokenizer.inRoot()) {
+                break;
+            }
+            if (current.isStructStart() && context.canSkipChildren()) {
+                tokenizer.skipChildren();
+                current = tokenizer.currentToken();
+            } else {
+                current = tokenizer.nextToken();
+            }
+        }
+        return context;
+    }
+
+}
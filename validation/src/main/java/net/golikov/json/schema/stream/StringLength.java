@@ -0,0 +1,160 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * {@code minLength} and {@code maxLength} keywords: the length of a string is the number of
+ * its code points, counted over the token text buffer without creating a String. With
+ * {@code maxLength} the text is counted as it is written by {@link CurrentToken#getText(Writer)},
+ * which stops as soon as the limit is passed, so where the token decodes text in chunks an
+ * overlong string fails without being decoded whole. Values of other types are valid.
+ */
+public class StringLength implements KeywordValidator<StringLength.ValidationContext> {
+
+    private static final LengthExceededException LENGTH_EXCEEDED = new LengthExceededException();
+
+    private final long minLength;
+    private final long maxLength;
+
+    /**
+     * @param maxLength largest number of code points, {@link Long#MAX_VALUE} if not limited
+     */
+    public StringLength(long minLength, long maxLength) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext(maxLength);
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        context.validated = true;
+        if (token.currentTokenId() != JsonTokenId.ID_STRING) {
+            context.valid = true;
+            return context;
+        }
+        long length;
+        if (maxLength == Long.MAX_VALUE) {
+            length = Character.codePointCount(token.getTextCharacters(), token.getTextOffset(), token.getTextLength());
+        } else {
+            CodePointCounter counter = context.counter;
+            counter.reset();
+            try {
+                token.getText(counter);
+            } catch (LengthExceededException e) {
+                // the counter stopped right after passing maxLength
+            }
+            length = counter.codePoints;
+        }
+        context.valid = length >= minLength && length <= maxLength;
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private final CodePointCounter counter;
+        private boolean validated;
+        private boolean valid;
+
+        private ValidationContext(long maxLength) {
+            this.counter = new CodePointCounter(maxLength);
+        }
+
+        @Override
+        public void reset() {
+            validated = false;
+            valid = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return validated && !valid;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+    }
+
+    /**
+     * Counts code points written to it, including surrogate pairs split between writes, and
+     * throws once there are more than the limit.
+     */
+    private static final class CodePointCounter extends Writer {
+
+        private final long limit;
+        private long codePoints;
+        private boolean highSurrogate;
+
+        private CodePointCounter(long limit) {
+            this.limit = limit;
+        }
+
+        private void reset() {
+            codePoints = 0;
+            highSurrogate = false;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                count(chars[i]);
+            }
+            if (codePoints > limit) {
+                throw LENGTH_EXCEEDED;
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                count(text.charAt(i));
+            }
+            if (codePoints > limit) {
+                throw LENGTH_EXCEEDED;
+            }
+        }
+
+        private void count(char c) {
+            if (!highSurrogate || !Character.isLowSurrogate(c)) {
+                codePoints++;
+            }
+            highSurrogate = Character.isHighSurrogate(c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    /**
+     * Shared exception without a stack trace, which is thrown on every overlong string.
+     */
+    private static final class LengthExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonTokenId;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * {@code pattern} keyword: strings are searched for the pattern by a {@link PropertyNameAutomaton}
+ * reading the token text buffer, which stops as soon as the pattern has matched. Patterns the automaton
+ * does not support are run by {@link java.util.regex} over a {@link java.nio.CharBuffer} view of
+ * the same buffer. Values of other types are valid.
+ */
+public class StringPattern implements KeywordValidator<StringPattern.ValidationContext> {
+
+    private final PropertyNameAutomaton automaton;
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException if the pattern is not a valid regular expression
+     */
+    public StringPattern(String pattern) {
+        this.automaton = new PropertyNameAutomaton(Collections.emptyList(), Collections.singletonList(pattern));
+    }
+
+    @Override
+    public ValidationContext newContext() {
+        return new ValidationContext();
+    }
+
+    @Override
+    public ValidationContext validate(ValidationContext context, CurrentToken token) throws IOException {
+        if (context.validated) {
+            return context;
+        }
+        context.validated = true;
+        context.valid = token.currentTokenId() != JsonTokenId.ID_STRING
+                || automaton.match(token.getTextCharacters(), token.getTextOffset(), token.getTextLength()).length > 0;
+        return context;
+    }
+
+    public static class ValidationContext implements ResettableValidationContext {
+
+        private boolean validated;
+        private boolean valid;
+
+        private ValidationContext() {
+        }
+
+        @Override
+        public void reset() {
+            validated = false;
+            valid = false;
+        }
+
+        @Override
+        public boolean hasErrors() {
+            return validated && !valid;
+        }
+
+        @Override
+        public boolean isValidated() {
+            return validated;
+        }
+
+    }
+
+}
@@ -0,0 +1,182 @@
+package net.golikov.json.schema.stream;
+
+import java.util.Arrays;
+
+/**
+ * Positions of structural characters ({@code {}[]:,} outside strings) and of opening quotes in
+ * a UTF-8 document, found 64 bytes at a time as in the first stage of simdjson. Bytes are
+ * classified with the Vector API when the {@code jdk.incubator.vector} module is resolved and
+ * byte by byte otherwise; quotes escaped by backslashes and characters within strings are then
+ * masked out with bit arithmetic.
+ * <p>
+ * The index also pairs every opening bracket with its closing one, so that a
+ * {@link Utf8Tokenizer} can skip an object or array by a single jump. Apart from brackets being
+ * balanced and strings terminated, the document is not checked here.
+ */
+public final class StructuralIndex {
+
+    private static final StructuralScanner PREFERRED_SCANNER = preferredScanner();
+
+    private final StructuralScanner scanner;
+    private final long[] masks = new long[3];
+    private final byte[] tail = new byte[64];
+
+    private byte[] input;
+    private int[] positions = new int[64];
+    private int[] closes = new int[64];
+    private int size;
+    private int[] open = new int[16];
+    private boolean balanced;
+
+    public StructuralIndex() {
+        this(PREFERRED_SCANNER);
+    }
+
+    private StructuralIndex(StructuralScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * @return an index classifying bytes one at a time, regardless of the Vector API availability
+     */
+    public static StructuralIndex scalar() {
+        return new StructuralIndex(new ScalarStructuralScanner());
+    }
+
+    public boolean isVectorized() {
+        return !(scanner instanceof ScalarStructuralScanner);
+    }
+
+    /**
+     * Indexes a document, reusing buffers of the previous one.
+     *
+     * @return this index
+     */
+    public StructuralIndex index(byte[] input, int offset, int length) {
+        this.input = input;
+        size = 0;
+        balanced = true;
+        int depth = 0;
+        boolean escapedCarry = false;
+        long inStringCarry = 0;
+        int end = offset + length;
+        for (int block = offset; block < end && balanced; block += 64) {
+            if (end - block >= 64) {
+                scanner.scan(input, block, masks);
+            } else {
+                Arrays.fill(tail, (byte) ' ');
+                System.arraycopy(input, block, tail, 0, end - block);
+                scanner.scan(tail, 0, masks);
+            }
+            long backslashes = masks[StructuralScanner.BACKSLASHES];
+            long escaped = 0;
+            if (escapedCarry) {
+                escaped = 1;
+                backslashes &= ~1L;
+                escapedCarry = false;
+            }
+            while (backslashes != 0) {
+                int i = Long.numberOfTrailingZeros(backslashes);
+                if (i == 63) {
+                    escapedCarry = true;
+                    break;
+                }
+                escaped |= 1L << i + 1;
+                backslashes &= ~(3L << i);
+            }
+            long quotes = masks[StructuralScanner.QUOTES] & ~escaped;
+            long inString = prefixXor(quotes) ^ inStringCarry;
+            inStringCarry = inString >> 63;
+            long structurals = masks[StructuralScanner.STRUCTURALS] & ~inString | quotes & inString;
+            while (structurals != 0) {
+                depth = add(block + Long.numberOfTrailingZeros(structurals), depth);
+                structurals &= structurals - 1;
+            }
+        }
+        balanced &= depth == 0 && inStringCarry == 0;
+        return this;
+    }
+
+    /**
+     * @return whether brackets of the indexed document are balanced and all its strings terminated
+     */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return offset within the input of the structural character or opening quote number {@code i}
+     */
+    public int position(int i) {
+        return positions[i];
+    }
+
+    /**
+     * @return offset of the bracket closing the one at a given offset, or -1 if there is no
+     *   opening bracket at the offset or the document is not balanced
+     */
+    public int closeOf(int position) {
+        if (!balanced) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(positions, 0, size, position);
+        return i >= 0 ? closes[i] : -1;
+    }
+
+    private int add(int position, int depth) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            closes = Arrays.copyOf(closes, size * 2);
+        }
+        positions[size] = position;
+        closes[size] = -1;
+        byte b = input[position];
+        if (b == '{' || b == '[') {
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+            }
+            open[depth++] = size;
+        } else if (b == '}' || b == ']') {
+            // '}' and ']' follow '{' and '[' by two code points
+            if (depth == 0 || input[positions[open[depth - 1]]] + 2 != b) {
+                balanced = false;
+            } else {
+                closes[open[--depth]] = position;
+            }
+        }
+        size++;
+        return depth;
+    }
+
+    /**
+     * @return mask with bit {@code i} set when an odd number of bits up to {@code i} is set,
+     *   which for quotes marks the opening quote and contents of strings
+     */
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    private static StructuralScanner preferredScanner() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                if (VectorStructuralScanner.SPECIES.length() >= 16) {
+                    return new VectorStructuralScanner();
+                }
+            } catch (LinkageError e) {
+                // fall back to the scalar scanner
+            }
+        }
+        return new ScalarStructuralScanner();
+    }
+
+}
@@ -0,0 +1,21 @@
+package net.golikov.json.schema.stream;
+
+/**
+ * First stage of {@link StructuralIndex}: classifies 64 bytes of input at a time into bit masks.
+ */
+interface StructuralScanner {
+
+    int QUOTES = 0;
+    int BACKSLASHES = 1;
+    int STRUCTURALS = 2;
+
+    /**
+     * Sets bit {@code i} of {@code masks[QUOTES]}, {@code masks[BACKSLASHES]} and
+     * {@code masks[STRUCTURALS]} when byte {@code at + i} is a double quote, a backslash or one of
+     * {@code {}[]:,} respectively.
+     *
+     * @param input at least 64 bytes starting from {@code at}
+     */
+    void scan(byte[] input, int at, long[] masks);
+
+}
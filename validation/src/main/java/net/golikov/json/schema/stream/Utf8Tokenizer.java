@@ -0,0 +1,709 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.ContentReference;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Purpose-built UTF-8 JSON tokenizer for validation, reading straight from a {@code byte[]} or
+ * {@link ByteBuffer} without a Jackson parser. Tokens are only delimited and checked for
+ * well-formedness while scanning; text of names, strings and numbers is decoded, and number
+ * types determined, when a validator asks for them. Property names without escapes are
+ * looked up in a {@link PropertyNameTable} as raw bytes.
+ * <p>
+ * Accepts and rejects the same documents as Jackson's default UTF-8 parser, skipping a leading
+ * byte order mark as it does, and reports the same tokens, text and number types. With a {@link StructuralIndex} of the input, objects
+ * and arrays are skipped without scanning them, so malformed content within skipped values is
+ * not reported.
+ */
+public final class Utf8Tokenizer implements CurrentToken {
+
+    private byte[] array;
+    private ByteBuffer buffer;
+    private StructuralIndex index;
+    private int position;
+    private int end;
+
+    private JsonToken token;
+    private int tokenStart;
+    private int textStart;
+    private int textEnd;
+    private boolean escaped;
+    private int intDigits;
+
+    private byte[] containers = new byte[16];
+    private int depth;
+    private boolean needSeparator;
+
+    private char[] text = new char[64];
+    private int textLength = -1;
+    private String textString;
+    private final char[] chunk = new char[512];
+    private int chunkLength;
+
+    public Utf8Tokenizer(byte[] input, int offset, int length) {
+        reset(input, offset, length);
+    }
+
+    public Utf8Tokenizer(ByteBuffer input) {
+        reset(input);
+    }
+
+    /**
+     * Starts tokenizing another input, reusing buffers.
+     */
+    public void reset(byte[] input, int offset, int length) {
+        reset(input, offset, length, null);
+    }
+
+    /**
+     * Starts tokenizing another input, reusing buffers.
+     *
+     * @param index index of the same input range used to skip children, or null
+     */
+    public void reset(byte[] input, int offset, int length, StructuralIndex index) {
+        array = input;
+        buffer = null;
+        this.index = index;
+        position = offset;
+        end = offset + length;
+        resetState();
+    }
+
+    /**
+     * Starts tokenizing remaining bytes of another buffer, reusing buffers. The position of
+     * the buffer is not changed.
+     */
+    public void reset(ByteBuffer input) {
+        index = null;
+        if (input.hasArray()) {
+            array = input.array();
+            buffer = null;
+            position = input.arrayOffset() + input.position();
+            end = input.arrayOffset() + input.limit();
+        } else {
+            array = null;
+            buffer = input;
+            position = input.position();
+            end = input.limit();
+        }
+        resetState();
+    }
+
+    private void resetState() {
+        if (end - position >= 3 && byteAt(position) == (byte) 0xEF && byteAt(position + 1) == (byte) 0xBB
+                && byteAt(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+        token = null;
+        depth = 0;
+        needSeparator = false;
+        clearText();
+    }
+
+    public JsonToken nextToken() throws JsonParseException {
+        clearText();
+        int b = skipWhitespace();
+        if (b < 0) {
+            if (depth > 0) {
+                throw error(String.format("Unexpected end-of-input: expected close marker for %s",
+                        containers[depth - 1] == '{' ? "Object" : "Array"));
+            }
+            token = null;
+            return null;
+        }
+        if (depth > 0 && token != JsonToken.FIELD_NAME) {
+            boolean inObject = containers[depth - 1] == '{';
+            int close = inObject ? '}' : ']';
+            if (b == close) {
+                return endContainer(inObject);
+            }
+            if (needSeparator) {
+                if (b != ',') {
+                    throw unexpected(b, String.format("was expecting comma to separate %s entries",
+                            inObject ? "Object" : "Array"));
+                }
+                position++;
+                b = skipWhitespace();
+                if (b < 0) {
+                    throw error("Unexpected end-of-input within " + (inObject ? "Object" : "Array"));
+                }
+            }
+            if (inObject) {
+                return fieldName(b);
+            }
+        }
+        return value(b);
+    }
+
+    /**
+     * Skips to the end of the current object or array; does nothing for other tokens.
+     * Without a {@link StructuralIndex} the skipped content is still checked for well-formedness.
+     */
+    public void skipChildren() throws JsonParseException {
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return;
+        }
+        int close = index != null ? index.closeOf(tokenStart) : -1;
+        if (close >= 0) {
+            clearText();
+            position = close;
+            endContainer(token == JsonToken.START_OBJECT);
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            if (nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether the current token is not within an object or array, that is, a
+     *   root-level scalar or the end of a root-level container
+     */
+    public boolean inRoot() {
+        return depth == 0;
+    }
+
+    /**
+     * @return offset of the first byte of the current token within the input
+     */
+    public int getTokenOffset() {
+        return tokenStart;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return token;
+    }
+
+    @Override
+    public String getText() throws JsonParseException {
+        if (token == null) {
+            return null;
+        }
+        if (textString == null) {
+            decodeText();
+            textString = new String(text, 0, textLength);
+        }
+        return textString;
+    }
+
+    /**
+     * Strings which are not decoded yet are decoded in chunks straight to the writer, so a
+     * writer throwing an exception stops decoding and a long string is never buffered whole.
+     */
+    @Override
+    public int getText(Writer writer) throws IOException {
+        if (token == null) {
+            return 0;
+        }
+        if (textLength >= 0 || token != JsonToken.FIELD_NAME && token != JsonToken.VALUE_STRING) {
+            decodeText();
+            writer.write(text, 0, textLength);
+            return textLength;
+        }
+        int written = 0;
+        for (int i = textStart; i < textEnd; ) {
+            i = decodeString(i, chunk, chunk.length - 1);
+            writer.write(chunk, 0, chunkLength);
+            written += chunkLength;
+        }
+        return written;
+    }
+
+    @Override
+    public char[] getTextCharacters() throws JsonParseException {
+        if (token == null) {
+            return null;
+        }
+        decodeText();
+        return text;
+    }
+
+    @Override
+    public int getTextLength() throws JsonParseException {
+        if (token == null) {
+            return 0;
+        }
+        decodeText();
+        return textLength;
+    }
+
+    @Override
+    public int getTextOffset() {
+        return 0;
+    }
+
+    @Override
+    public JsonParser.NumberType getNumberType() {
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return JsonParser.NumberType.DOUBLE;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT) {
+            return null;
+        }
+        if (intDigits <= 9) {
+            return JsonParser.NumberType.INT;
+        }
+        if (intDigits <= 18) {
+            long value = 0;
+            for (int i = textEnd - intDigits; i < textEnd; i++) {
+                value = value * 10 + (byteAt(i) - '0');
+            }
+            boolean negative = byteAt(textStart) == '-';
+            return (negative ? -value >= Integer.MIN_VALUE : value <= Integer.MAX_VALUE)
+                    ? JsonParser.NumberType.INT : JsonParser.NumberType.LONG;
+        }
+        if (intDigits == 19) {
+            String limit = byteAt(textStart) == '-' ? "9223372036854775808" : "9223372036854775807";
+            for (int i = 0; i < 19; i++) {
+                int digit = byteAt(textEnd - 19 + i);
+                if (digit != limit.charAt(i)) {
+                    return digit < limit.charAt(i) ? JsonParser.NumberType.LONG : JsonParser.NumberType.BIG_INTEGER;
+                }
+            }
+            return JsonParser.NumberType.LONG;
+        }
+        return JsonParser.NumberType.BIG_INTEGER;
+    }
+
+    /**
+     * Looks names and strings without escapes up by their raw UTF-8 bytes.
+     */
+    @Override
+    public int lookUp(PropertyNameTable names) throws JsonParseException {
+        if (array != null && !escaped && (token == JsonToken.FIELD_NAME || token == JsonToken.VALUE_STRING)) {
+            return names.indexOf(array, textStart, textEnd - textStart);
+        }
+        return names.indexOf(getTextCharacters(), 0, getTextLength());
+    }
+
+    private JsonToken endContainer(boolean object) {
+        tokenStart = position++;
+        depth--;
+        needSeparator = true;
+        return token = object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+    private JsonToken fieldName(int b) throws JsonParseException {
+        if (b != '"') {
+            throw unexpected(b, "was expecting double-quote to start field name");
+        }
+        tokenStart = position;
+        string();
+        int colon = skipWhitespace();
+        if (colon != ':') {
+            throw unexpected(colon, "was expecting a colon to separate field name and value");
+        }
+        position++;
+        return token = JsonToken.FIELD_NAME;
+    }
+
+    private JsonToken value(int b) throws JsonParseException {
+        tokenStart = position;
+        needSeparator = true;
+        switch (b) {
+            case '{':
+                return startContainer((byte) '{', JsonToken.START_OBJECT);
+            case '[':
+                return startContainer((byte) '[', JsonToken.START_ARRAY);
+            case '"':
+                string();
+                return token = JsonToken.VALUE_STRING;
+            case 't':
+                return literal("true", JsonToken.VALUE_TRUE);
+            case 'f':
+                return literal("false", JsonToken.VALUE_FALSE);
+            case 'n':
+                return literal("null", JsonToken.VALUE_NULL);
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return number();
+            default:
+                throw unexpected(b, "expected a valid value (JSON String, Number, Array, Object or token 'null', 'true' or 'false')");
+        }
+    }
+
+    private JsonToken startContainer(byte type, JsonToken start) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+        }
+        containers[depth++] = type;
+        position++;
+        needSeparator = false;
+        return token = start;
+    }
+
+    private JsonToken literal(String literal, JsonToken literalToken) throws JsonParseException {
+        int i = 0;
+        while (i < literal.length() && position + i < end && byteAt(position + i) == literal.charAt(i)) {
+            i++;
+        }
+        if (i < literal.length() || position + i < end && isIdentifierPart(byteAt(position + i))) {
+            int tokenEnd = position + i;
+            while (tokenEnd < end && isIdentifierPart(byteAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            throw error(String.format("Unrecognized token '%s': was expecting (JSON String, Number, Array, Object or token 'null', 'true' or 'false')",
+                    new String(bytes(position, Math.max(tokenEnd, position + 1)), StandardCharsets.UTF_8)));
+        }
+        textStart = position;
+        position += literal.length();
+        textEnd = position;
+        return token = literalToken;
+    }
+
+    private JsonToken number() throws JsonParseException {
+        textStart = position;
+        int i = position;
+        if (byteAt(i) == '-') {
+            i++;
+        }
+        int digitsStart = i;
+        if (i < end && byteAt(i) == '0') {
+            i++;
+            if (i < end && isDigit(byteAt(i))) {
+                throw error("Invalid numeric value: Leading zeroes not allowed");
+            }
+        } else {
+            while (i < end && isDigit(byteAt(i))) {
+                i++;
+            }
+            if (i == digitsStart) {
+                throw i < end ? unexpected(byteAt(i), "expected digit (0-9) to follow minus sign, for valid numeric value")
+                        : error("Unexpected end-of-input in a Number value");
+            }
+        }
+        intDigits = i - digitsStart;
+        boolean fraction = false;
+        if (i < end && byteAt(i) == '.') {
+            fraction = true;
+            int fractionStart = ++i;
+            while (i < end && isDigit(byteAt(i))) {
+                i++;
+            }
+            if (i == fractionStart) {
+                throw numberError(i, "Decimal point not followed by a digit");
+            }
+        }
+        if (i < end && (byteAt(i) == 'e' || byteAt(i) == 'E')) {
+            fraction = true;
+            i++;
+            if (i < end && (byteAt(i) == '+' || byteAt(i) == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isDigit(byteAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                throw numberError(i, "Exponent indicator not followed by a digit");
+            }
+        }
+        if (i < end) {
+            int next = byteAt(i);
+            if (depth == 0 ? !isWhitespace(next) : !isWhitespace(next) && next != ',' && next != ']' && next != '}') {
+                position = i;
+                throw unexpected(next, depth == 0 ? "Expected space separating root-level values"
+                        : "was expecting comma to separate entries");
+            }
+        }
+        position = i;
+        textEnd = i;
+        return token = fraction ? JsonToken.VALUE_NUMBER_FLOAT : JsonToken.VALUE_NUMBER_INT;
+    }
+
+    /**
+     * Scans a string starting at the opening quote at {@link #position}, validating escapes
+     * and UTF-8 sequences, and leaves the position after the closing quote.
+     */
+    private void string() throws JsonParseException {
+        int i = position + 1;
+        textStart = i;
+        escaped = false;
+        if (array != null) {
+            byte[] bytes = array;
+            while (i < end) {
+                byte b = bytes[i];
+                if (b == '"' || b == '\\' || b < 0x20) {
+                    break;
+                }
+                i++;
+            }
+            if (i < end && bytes[i] == '"') {
+                textEnd = i;
+                position = i + 1;
+                return;
+            }
+        }
+        while (i < end) {
+            int b = byteAt(i);
+            if (b == '"') {
+                textEnd = i;
+                position = i + 1;
+                return;
+            }
+            if (b == '\\') {
+                escaped = true;
+                i = escape(i + 1);
+            } else if (b >= 0 && b < 0x20) {
+                position = i;
+                throw error(String.format("Illegal unquoted character (CTRL-CHAR, code %d): has to be escaped using backslash to be included in string value", b));
+            } else if (b < 0) {
+                i = utf8(i);
+            } else {
+                i++;
+            }
+        }
+        position = end;
+        throw error("Unexpected end-of-input: was expecting closing quote for a string value");
+    }
+
+    private int escape(int i) throws JsonParseException {
+        if (i >= end) {
+            position = end;
+            throw error("Unexpected end-of-input in character escape sequence");
+        }
+        int b = byteAt(i);
+        switch (b) {
+            case '"':
+            case '\\':
+            case '/':
+            case 'b':
+            case 'f':
+            case 'n':
+            case 'r':
+            case 't':
+                return i + 1;
+            case 'u':
+                for (int j = 1; j <= 4; j++) {
+                    if (i + j >= end) {
+                        position = end;
+                        throw error("Unexpected end-of-input in character escape sequence");
+                    }
+                    if (Character.digit(byteAt(i + j), 16) < 0) {
+                        position = i + j;
+                        throw error(String.format("Unexpected character (%s) in character escape sequence: expected a hex-digit",
+                                describe(byteAt(i + j))));
+                    }
+                }
+                return i + 5;
+            default:
+                position = i;
+                throw error(String.format("Unrecognized character escape %s", describe(b)));
+        }
+    }
+
+    private int utf8(int i) throws JsonParseException {
+        int b = byteAt(i) & 0xFF;
+        int continuation;
+        if ((b & 0xE0) == 0xC0) {
+            continuation = 1;
+        } else if ((b & 0xF0) == 0xE0) {
+            continuation = 2;
+        } else if ((b & 0xF8) == 0xF0) {
+            continuation = 3;
+        } else {
+            position = i;
+            throw error(String.format("Invalid UTF-8 start byte 0x%x", b));
+        }
+        for (int j = 1; j <= continuation; j++) {
+            if (i + j >= end) {
+                position = end;
+                throw error("Unexpected end-of-input: was expecting closing quote for a string value");
+            }
+            int c = byteAt(i + j) & 0xFF;
+            if ((c & 0xC0) != 0x80) {
+                position = i + j;
+                throw error(String.format("Invalid UTF-8 middle byte 0x%x", c));
+            }
+        }
+        return i + continuation + 1;
+    }
+
+    private void clearText() {
+        textLength = -1;
+        textString = null;
+    }
+
+    private void decodeText() {
+        if (textLength >= 0) {
+            return;
+        }
+        switch (token) {
+            case FIELD_NAME:
+            case VALUE_STRING:
+                decodeString();
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                ensureText(textEnd - textStart);
+                for (int i = textStart; i < textEnd; i++) {
+                    text[i - textStart] = (char) byteAt(i);
+                }
+                textLength = textEnd - textStart;
+                break;
+            default:
+                String structural = token.asString();
+                ensureText(structural.length());
+                structural.getChars(0, structural.length(), text, 0);
+                textLength = structural.length();
+        }
+    }
+
+    private void decodeString() {
+        ensureText(textEnd - textStart);
+        decodeString(textStart, text, Integer.MAX_VALUE);
+        textLength = chunkLength;
+    }
+
+    /**
+     * Decodes string bytes from {@code i} until the end of the string or until {@code limit}
+     * units are decoded, leaving room for one more unit of a surrogate pair; the number of
+     * decoded units is left in {@link #chunkLength}.
+     *
+     * @return index of the first byte not decoded
+     */
+    private int decodeString(int i, char[] chars, int limit) {
+        int length = 0;
+        while (i < textEnd && length < limit) {
+            int b = byteAt(i);
+            if (b == '\\') {
+                int c = byteAt(i + 1);
+                switch (c) {
+                    case 'b':
+                        chars[length++] = '\b';
+                        break;
+                    case 'f':
+                        chars[length++] = '\f';
+                        break;
+                    case 'n':
+                        chars[length++] = '\n';
+                        break;
+                    case 'r':
+                        chars[length++] = '\r';
+                        break;
+                    case 't':
+                        chars[length++] = '\t';
+                        break;
+                    case 'u':
+                        chars[length++] = (char) (Character.digit(byteAt(i + 2), 16) << 12
+                                | Character.digit(byteAt(i + 3), 16) << 8
+                                | Character.digit(byteAt(i + 4), 16) << 4
+                                | Character.digit(byteAt(i + 5), 16));
+                        i += 4;
+                        break;
+                    default:
+                        chars[length++] = (char) c;
+                }
+                i += 2;
+            } else if (b >= 0) {
+                chars[length++] = (char) b;
+                i++;
+            } else {
+                int lead = b & 0xFF;
+                if ((lead & 0xE0) == 0xC0) {
+                    chars[length++] = (char) ((lead & 0x1F) << 6 | (byteAt(i + 1) & 0x3F));
+                    i += 2;
+                } else if ((lead & 0xF0) == 0xE0) {
+                    chars[length++] = (char) ((lead & 0x0F) << 12 | (byteAt(i + 1) & 0x3F) << 6
+                            | (byteAt(i + 2) & 0x3F));
+                    i += 3;
+                } else {
+                    // surrogates are computed as Jackson does, also for overlong sequences
+                    int c = ((lead & 0x07) << 18 | (byteAt(i + 1) & 0x3F) << 12
+                            | (byteAt(i + 2) & 0x3F) << 6 | (byteAt(i + 3) & 0x3F)) - 0x10000;
+                    chars[length++] = (char) (0xD800 | (c >> 10));
+                    chars[length++] = (char) (0xDC00 | (c & 0x3FF));
+                    i += 4;
+                }
+            }
+        }
+        chunkLength = length;
+        return i;
+    }
+
+    private void ensureText(int length) {
+        if (text.length < length) {
+            text = new char[Math.max(length, text.length * 2)];
+        }
+    }
+
+    private int skipWhitespace() {
+        while (position < end) {
+            int b = byteAt(position);
+            if (!isWhitespace(b)) {
+                return b & 0xFF;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    private int byteAt(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    private byte[] bytes(int from, int to) {
+        byte[] bytes = new byte[Math.min(to, end) - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) byteAt(from + i);
+        }
+        return bytes;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isIdentifierPart(int b) {
+        return b < 0 || b == '_' || b == '$' || isDigit(b) || (b | 0x20) >= 'a' && (b | 0x20) <= 'z';
+    }
+
+    private static String describe(int b) {
+        int c = b & 0xFF;
+        return c >= 0x20 && c < 0x7F ? String.format("'%c' (code %d)", (char) c, c) : String.format("(code %d)", c);
+    }
+
+    private JsonParseException numberError(int at, String message) {
+        position = at;
+        return error("Invalid numeric value: " + message);
+    }
+
+    private JsonParseException unexpected(int b, String expectation) {
+        return error(String.format("Unexpected character (%s): %s", describe(b), expectation));
+    }
+
+    private JsonParseException error(String message) {
+        return new JsonParseException(null, message,
+                new JsonLocation(ContentReference.unknown(), position, -1L, -1, -1));
+    }
+
+}
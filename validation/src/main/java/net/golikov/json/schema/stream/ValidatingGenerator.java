@@ -0,0 +1,624 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Generator delegate feeding every written token to a {@link Validator}, the write side
+ * counterpart of {@link JsonParserWrapper}: outbound documents are validated as they are
+ * serialized, without parsing them again. Objects written through a codec, for instance
+ * by {@code ObjectMapper#writeValue(JsonGenerator, Object)}, are validated token by token.
+ * Raw values are parsed to validate their tokens, while raw content written by {@code writeRaw}
+ * is not a value and passes through. Binary values read from a stream are not supported, as
+ * their text is not known without buffering them.
+ */
+public class ValidatingGenerator<C extends ValidationContext> extends JsonGeneratorDelegate implements CurrentToken {
+
+    private static final int TEXT = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int FLOAT = 3;
+    private static final int OBJECT = 4;
+
+    private static final JsonFactory RAW_VALUES = new JsonFactory();
+
+    /**
+     * Maximum length of a string value written from a reader, which is buffered to validate it.
+     */
+    public static final int MAX_READER_LENGTH = 20_000_000;
+
+    private final Validator<C> validator;
+    private final boolean abortOnFailure;
+    private C context;
+    private int skippedDepth;
+
+    private JsonToken currentToken;
+    private int valueKind;
+    private String text;
+    private char[] chars;
+    private int offset;
+    private int length;
+    private long longValue;
+    private double doubleValue;
+    private Object objectValue;
+
+    public ValidatingGenerator(JsonGenerator delegate, Validator<C> validator, C context) {
+        this(delegate, validator, context, false);
+    }
+
+    /**
+     * @param abortOnFailure whether to throw {@link ValidationAbortedException} instead of
+     *   writing the token the validation failed at
+     */
+    public ValidatingGenerator(JsonGenerator delegate, Validator<C> validator, C context, boolean abortOnFailure) {
+        super(delegate, false);
+        this.validator = validator;
+        this.context = context;
+        this.abortOnFailure = abortOnFailure;
+    }
+
+    public C getContext() {
+        return context;
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        observe(JsonToken.START_ARRAY);
+        super.writeStartArray();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void writeStartArray(int size) throws IOException {
+        observe(JsonToken.START_ARRAY);
+        super.writeStartArray(size);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        observe(JsonToken.START_ARRAY);
+        super.writeStartArray(forValue);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        observe(JsonToken.START_ARRAY);
+        super.writeStartArray(forValue, size);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        observe(JsonToken.END_ARRAY);
+        super.writeEndArray();
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        observe(JsonToken.START_OBJECT);
+        super.writeStartObject();
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        observe(JsonToken.START_OBJECT);
+        super.writeStartObject(forValue);
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        observe(JsonToken.START_OBJECT);
+        super.writeStartObject(forValue, size);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        observe(JsonToken.END_OBJECT);
+        super.writeEndObject();
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        observe(JsonToken.FIELD_NAME, name);
+        super.writeFieldName(name);
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        observe(JsonToken.FIELD_NAME, name.getValue());
+        super.writeFieldName(name);
+    }
+
+    @Override
+    public void writeFieldId(long id) throws IOException {
+        writeFieldName(Long.toString(id));
+    }
+
+    @Override
+    public void writeArray(int[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(long[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(double[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeNumber(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeArray(String[] array, int offset, int length) throws IOException {
+        writeStartArray(array, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            writeString(array[i]);
+        }
+        writeEndArray();
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        observe(JsonToken.VALUE_STRING, text);
+        super.writeString(text);
+    }
+
+    /**
+     * Buffers the text before writing it, as validators take a string value as a whole, and
+     * fails with {@link JsonGenerationException} beyond {@value #MAX_READER_LENGTH} characters
+     * or if the reader ends before {@code len} characters.
+     */
+    @Override
+    public void writeString(Reader reader, int len) throws IOException {
+        if (len > MAX_READER_LENGTH) {
+            throw readerTooLong();
+        }
+        char[] text = new char[len < 0 ? 4096 : len];
+        int length = 0;
+        while (len < 0 || length < len) {
+            if (length == text.length) {
+                if (length == MAX_READER_LENGTH) {
+                    if (reader.read() >= 0) {
+                        throw readerTooLong();
+                    }
+                    break;
+                }
+                text = Arrays.copyOf(text, (int) Math.min(2L * length, MAX_READER_LENGTH));
+            }
+            int read = reader.read(text, length, text.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        if (length < len) {
+            throw new JsonGenerationException(String.format(
+                    "Didn't read enough from reader: %d of %d characters", length, len), this);
+        }
+        writeString(text, 0, length);
+    }
+
+    private JsonGenerationException readerTooLong() {
+        return new JsonGenerationException(String.format(
+                "String value from reader is longer than %d characters", MAX_READER_LENGTH), this);
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        observe(JsonToken.VALUE_STRING, text, offset, len);
+        super.writeString(text, offset, len);
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        observe(JsonToken.VALUE_STRING, text.getValue());
+        super.writeString(text);
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        observe(JsonToken.VALUE_STRING, new String(text, offset, length, StandardCharsets.UTF_8));
+        super.writeRawUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        observe(JsonToken.VALUE_STRING, new String(text, offset, length, StandardCharsets.UTF_8));
+        super.writeUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len) throws IOException {
+        byte[] bytes = data;
+        if (offset != 0 || len != data.length) {
+            bytes = new byte[len];
+            System.arraycopy(data, offset, bytes, 0, len);
+        }
+        observe(JsonToken.VALUE_STRING, b64variant.encode(bytes));
+        super.writeBinary(b64variant, data, offset, len);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, as the encoded value is not known before
+     *   the whole stream is read
+     */
+    @Override
+    public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength) {
+        throw new UnsupportedOperationException("Binary values from streams cannot be validated");
+    }
+
+    @Override
+    public void writeNumber(short v) throws IOException {
+        observeLong(v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(int v) throws IOException {
+        observeLong(v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(long v) throws IOException {
+        observeLong(v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(BigInteger v) throws IOException {
+        if (v == null) {
+            writeNull();
+            return;
+        }
+        observeObject(JsonToken.VALUE_NUMBER_INT, v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(double v) throws IOException {
+        observeDouble(DOUBLE, v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(float v) throws IOException {
+        observeDouble(FLOAT, v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws IOException {
+        if (v == null) {
+            writeNull();
+            return;
+        }
+        observeObject(JsonToken.VALUE_NUMBER_FLOAT, v);
+        super.writeNumber(v);
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        if (encodedValue == null) {
+            writeNull();
+            return;
+        }
+        observe(isIntegral(encodedValue) ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT, encodedValue);
+        super.writeNumber(encodedValue);
+    }
+
+    @Override
+    public void writeNumber(char[] encodedValueBuffer, int offset, int len) throws IOException {
+        observe(isIntegral(encodedValueBuffer, offset, len) ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT,
+                encodedValueBuffer, offset, len);
+        super.writeNumber(encodedValueBuffer, offset, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        observe(state ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE);
+        super.writeBoolean(state);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        observe(JsonToken.VALUE_NULL);
+        super.writeNull();
+    }
+
+    @Override
+    public void writeRawValue(String text) throws IOException {
+        observeRaw(RAW_VALUES.createParser(text));
+        super.writeRawValue(text);
+    }
+
+    @Override
+    public void writeRawValue(String text, int offset, int len) throws IOException {
+        observeRaw(RAW_VALUES.createParser(text.substring(offset, offset + len)));
+        super.writeRawValue(text, offset, len);
+    }
+
+    @Override
+    public void writeRawValue(char[] text, int offset, int len) throws IOException {
+        observeRaw(RAW_VALUES.createParser(text, offset, len));
+        super.writeRawValue(text, offset, len);
+    }
+
+    @Override
+    public void writeRawValue(SerializableString text) throws IOException {
+        observeRaw(RAW_VALUES.createParser(text.getValue()));
+        super.writeRawValue(text);
+    }
+
+    @Override
+    public void writeEmbeddedObject(Object object) throws IOException {
+        if (object == null) {
+            writeNull();
+        } else if (object instanceof byte[]) {
+            writeBinary((byte[]) object);
+        } else {
+            super.writeEmbeddedObject(object);
+        }
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return currentToken;
+    }
+
+    @Override
+    public String getText() {
+        if (text == null) {
+            switch (valueKind) {
+                case TEXT:
+                    text = chars == null ? null : new String(chars, offset, length);
+                    break;
+                case LONG:
+                    text = Long.toString(longValue);
+                    break;
+                case DOUBLE:
+                    text = Double.toString(doubleValue);
+                    break;
+                case FLOAT:
+                    text = Float.toString((float) doubleValue);
+                    break;
+                default:
+                    text = objectValue.toString();
+            }
+        }
+        return text;
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        if (chars == null) {
+            String text = getText();
+            if (text == null) {
+                return null;
+            }
+            chars = text.toCharArray();
+            offset = 0;
+            length = chars.length;
+        }
+        return chars;
+    }
+
+    @Override
+    public int getTextLength() {
+        return getTextCharacters() == null ? 0 : length;
+    }
+
+    @Override
+    public int getTextOffset() {
+        return getTextCharacters() == null ? 0 : offset;
+    }
+
+    @Override
+    public JsonParser.NumberType getNumberType() {
+        if (currentToken != JsonToken.VALUE_NUMBER_INT && currentToken != JsonToken.VALUE_NUMBER_FLOAT) {
+            return null;
+        }
+        switch (valueKind) {
+            case LONG:
+                return longValue == (int) longValue ? JsonParser.NumberType.INT : JsonParser.NumberType.LONG;
+            case DOUBLE:
+                return JsonParser.NumberType.DOUBLE;
+            case FLOAT:
+                return JsonParser.NumberType.FLOAT;
+            case OBJECT:
+                return objectValue instanceof BigInteger
+                        ? JsonParser.NumberType.BIG_INTEGER : JsonParser.NumberType.BIG_DECIMAL;
+            default:
+                if (currentToken == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return JsonParser.NumberType.DOUBLE;
+                }
+                return integerType(getTextCharacters(), offset, length);
+        }
+    }
+
+    /**
+     * @return smallest of {@code INT}, {@code LONG} and {@code BIG_INTEGER} holding the integer text
+     */
+    private static JsonParser.NumberType integerType(char[] number, int offset, int length) {
+        boolean negative = length > 0 && number[offset] == '-';
+        int start = negative ? offset + 1 : offset;
+        int digits = offset + length - start;
+        if (digits <= 9) {
+            return JsonParser.NumberType.INT;
+        }
+        if (digits <= 18) {
+            long value = 0;
+            for (int i = start; i < start + digits; i++) {
+                value = value * 10 + (number[i] - '0');
+            }
+            return (negative ? -value >= Integer.MIN_VALUE : value <= Integer.MAX_VALUE)
+                    ? JsonParser.NumberType.INT : JsonParser.NumberType.LONG;
+        }
+        if (digits == 19) {
+            String limit = negative ? "9223372036854775808" : "9223372036854775807";
+            for (int i = 0; i < 19; i++) {
+                char digit = number[start + i];
+                if (digit != limit.charAt(i)) {
+                    return digit < limit.charAt(i) ? JsonParser.NumberType.LONG : JsonParser.NumberType.BIG_INTEGER;
+                }
+            }
+            return JsonParser.NumberType.LONG;
+        }
+        return JsonParser.NumberType.BIG_INTEGER;
+    }
+
+    private void observe(JsonToken token) throws IOException {
+        observe(token, null);
+    }
+
+    private void observe(JsonToken token, String text) throws IOException {
+        this.currentToken = token;
+        this.valueKind = TEXT;
+        this.text = text;
+        this.chars = null;
+        validate();
+    }
+
+    private void observe(JsonToken token, char[] chars, int offset, int length) throws IOException {
+        this.currentToken = token;
+        this.valueKind = TEXT;
+        this.text = null;
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        validate();
+    }
+
+    /**
+     * Observes the tokens of a raw value.
+     */
+    private void observeRaw(JsonParser parser) throws IOException {
+        try (JsonParser p = parser) {
+            JsonToken token;
+            while ((token = p.nextToken()) != null) {
+                if (token.isScalarValue() || token == JsonToken.FIELD_NAME) {
+                    observe(token, p.getText());
+                } else {
+                    observe(token);
+                }
+            }
+        }
+    }
+
+    private void observeLong(long value) throws IOException {
+        this.currentToken = JsonToken.VALUE_NUMBER_INT;
+        this.valueKind = LONG;
+        this.text = null;
+        this.chars = null;
+        this.longValue = value;
+        validate();
+    }
+
+    private void observeDouble(int kind, double value) throws IOException {
+        this.currentToken = JsonToken.VALUE_NUMBER_FLOAT;
+        this.valueKind = kind;
+        this.text = null;
+        this.chars = null;
+        this.doubleValue = value;
+        validate();
+    }
+
+    private void observeObject(JsonToken token, Object value) throws IOException {
+        this.currentToken = token;
+        this.valueKind = OBJECT;
+        this.text = null;
+        this.chars = null;
+        this.objectValue = value;
+        validate();
+    }
+
+    private void validate() throws IOException {
+        if (context.isValidated()) {
+            return;
+        }
+        if (skippedDepth > 0) {
+            if (currentToken.isStructStart()) {
+                skippedDepth++;
+            } else if (currentToken.isStructEnd()) {
+                skippedDepth--;
+            }
+            if (skippedDepth > 0) {
+                return;
+            }
+        }
+        context = validator.validate(context, this);
+        if (context.isValidated()) {
+            if (abortOnFailure && context.hasErrors()) {
+                delegate.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                throw new ValidationAbortedException("Validation failed, output aborted", context);
+            }
+        } else if (currentToken.isStructStart() && context.canSkipChildren()) {
+            skippedDepth = 1;
+        }
+    }
+
+    /**
+     * @return whether the encoded number is a JSON integer, an optional minus sign and digits;
+     *   anything else, including {@code NaN} and infinities, is taken for a float
+     */
+    private static boolean isIntegral(String number) {
+        int i = number.startsWith("-") ? 1 : 0;
+        if (i == number.length()) {
+            return false;
+        }
+        for (; i < number.length(); i++) {
+            if (!isDigit(number.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIntegral(char[] number, int offset, int len) {
+        int i = len > 0 && number[offset] == '-' ? offset + 1 : offset;
+        if (i == offset + len) {
+            return false;
+        }
+        for (; i < offset + len; i++) {
+            if (!isDigit(number[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
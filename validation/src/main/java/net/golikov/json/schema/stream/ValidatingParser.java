@@ -0,0 +1,157 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Parser wrapper feeding every token it advances to into a {@link Validator}, so a document
+ * is validated as a side effect of whatever consumes the parser, for instance
+ * {@code ObjectMapper#readValue(JsonParser, Class)}. All token iteration methods, including
+ * {@link #skipChildren()}, go through {@link #nextToken()}; the verdict is available from
+ * {@link #getContext()} once the value has been read.
+ */
+public class ValidatingParser<C extends ValidationContext> extends JsonParserWrapper {
+
+    private final Validator<C> validator;
+    private final boolean failFast;
+    private C context;
+    private int skippedDepth;
+
+    public ValidatingParser(JsonParser delegate, Validator<C> validator, C context) {
+        this(delegate, validator, context, false);
+    }
+
+    /**
+     * @param failFast whether to throw {@link ValidationAbortedException} from the token
+     *   the validation failed at, which aborts binding of the value being read
+     */
+    public ValidatingParser(JsonParser delegate, Validator<C> validator, C context, boolean failFast) {
+        super(delegate);
+        this.validator = validator;
+        this.context = context;
+        this.failFast = failFast;
+    }
+
+    public C getContext() {
+        return context;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = super.nextToken();
+        if (token != null && !context.isValidated()) {
+            validate(token);
+        }
+        return token;
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        return token == JsonToken.FIELD_NAME ? nextToken() : token;
+    }
+
+    @Override
+    public boolean nextFieldName(SerializableString str) throws IOException {
+        return nextToken() == JsonToken.FIELD_NAME && str.getValue().equals(getCurrentName());
+    }
+
+    @Override
+    public String nextFieldName() throws IOException {
+        return nextToken() == JsonToken.FIELD_NAME ? getCurrentName() : null;
+    }
+
+    @Override
+    public String nextTextValue() throws IOException {
+        return nextToken() == JsonToken.VALUE_STRING ? getText() : null;
+    }
+
+    @Override
+    public int nextIntValue(int defaultValue) throws IOException {
+        return nextToken() == JsonToken.VALUE_NUMBER_INT ? getIntValue() : defaultValue;
+    }
+
+    @Override
+    public long nextLongValue(long defaultValue) throws IOException {
+        return nextToken() == JsonToken.VALUE_NUMBER_INT ? getLongValue() : defaultValue;
+    }
+
+    @Override
+    public Boolean nextBooleanValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return Boolean.TRUE;
+        }
+        return token == JsonToken.VALUE_FALSE ? Boolean.FALSE : null;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        JsonToken token = currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return this;
+        }
+        if (context.isValidated()) {
+            return super.skipChildren();
+        }
+        int open = 1;
+        while ((token = nextToken()) != null) {
+            if (token.isStructStart()) {
+                open++;
+            } else if (token.isStructEnd() && --open == 0) {
+                break;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public <T> T readValueAs(Class<T> valueType) throws IOException {
+        return _codec().readValue(this, valueType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T readValueAs(TypeReference<?> valueTypeRef) throws IOException {
+        return (T) _codec().readValue(this, valueTypeRef);
+    }
+
+    @Override
+    public <T> Iterator<T> readValuesAs(Class<T> valueType) throws IOException {
+        return _codec().readValues(this, valueType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends TreeNode> T readValueAsTree() throws IOException {
+        return (T) _codec().readTree(this);
+    }
+
+    private void validate(JsonToken token) throws IOException {
+        if (skippedDepth > 0) {
+            if (token.isStructStart()) {
+                skippedDepth++;
+            } else if (token.isStructEnd()) {
+                skippedDepth--;
+            }
+            if (skippedDepth > 0) {
+                return;
+            }
+        }
+        context = validator.validate(context, this);
+        if (context.isValidated()) {
+            if (failFast && context.hasErrors()) {
+                throw new ValidationAbortedException("Validation failed, reading aborted", context);
+            }
+        } else if (token.isStructStart() && context.canSkipChildren()) {
+            skippedDepth = 1;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Subscriber} validating a document published as {@link ByteBuffer} chunks with a
+ * {@link NonBlockingValidator}. Chunks are requested one at a time, only after the previous one
+ * has been validated. The subscription is cancelled as soon as the document is known to be
+ * invalid; a document known to be valid early is still drained, but its result is available
+ * right away.
+ */
+public class ValidatingSubscriber<C extends ResettableValidationContext> implements Flow.Subscriber<ByteBuffer> {
+
+    private final NonBlockingValidator<C> validator;
+    private final CompletableFuture<C> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    public ValidatingSubscriber(JsonFactory factory, KeywordValidator<C> validator) throws IOException {
+        this.validator = new NonBlockingValidator<>(factory, validator);
+    }
+
+    /**
+     * @return stage completed with the validation context once the verdict is known, or
+     *   exceptionally if the publisher fails or the document can't be parsed
+     */
+    public CompletionStage<C> getResult() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        if (result.isDone()) {
+            subscription.request(1);
+            return;
+        }
+        NonBlockingValidator.Status status;
+        try {
+            status = validator.feed(item);
+        } catch (IOException | RuntimeException e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        if (status == NonBlockingValidator.Status.FAILED) {
+            subscription.cancel();
+            result.complete(validator.getContext());
+            return;
+        }
+        if (status == NonBlockingValidator.Status.VALID) {
+            result.complete(validator.getContext());
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            validator.endOfInput();
+            result.complete(validator.getContext());
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Copies one root value from a parser to a generator while a {@link Validator} observes the
+ * same tokens, so a payload is validated and re-serialized in a single parse. Nothing is
+ * skipped: the validator stops receiving tokens once validated, but copying continues to
+ * the end of the value unless the tee aborts on failure.
+ */
+public class ValidatingTee<C extends ValidationContext> {
+
+    private final Validator<C> validator;
+    private final boolean abortOnFailure;
+
+    public ValidatingTee(Validator<C> validator) {
+        this(validator, false);
+    }
+
+    /**
+     * @param abortOnFailure whether to stop copying as soon as validation has failed
+     */
+    public ValidatingTee(Validator<C> validator, boolean abortOnFailure) {
+        this.validator = validator;
+        this.abortOnFailure = abortOnFailure;
+    }
+
+    /**
+     * @throws ValidationAbortedException if aborting on failure and the value is invalid; the
+     *   output then ends within the value and the generator no longer closes open structures
+     */
+    public C copy(C context, JsonParserWrapper parser, JsonGenerator generator) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != null) {
+            if (!context.isValidated()) {
+                context = validator.validate(context, parser);
+                if (abortOnFailure && context.isValidated() && context.hasErrors()) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                    throw new ValidationAbortedException("Validation failed, output aborted", context);
+                }
+            }
+            generator.copyCurrentEvent(parser);
+            if (parser.getParsingContext().inRoot()) {
+                break;
+            }
+            token = parser.nextToken();
+        }
+        return context;
+    }
+
+}
@@ -0,0 +1,26 @@
+package net.golikov.json.schema.stream;
+
+import java.io.IOException;
+
+/**
+ * Thrown to abort processing of a document as soon as its validation has failed.
+ */
+public class ValidationAbortedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ValidationContext context;
+
+    public ValidationAbortedException(String message, ValidationContext context) {
+        super(message);
+        this.context = context;
+    }
+
+    /**
+     * @return context holding the failed verdict
+     */
+    public ValidationContext getContext() {
+        return context;
+    }
+
+}
@@ -3,4 +3,12 @@ package net.golikov.json.schema.stream;
 public interface ValidationContext {
     boolean hasErrors();
     boolean isValidated();
+
+    /**
+     * @return true if the container the current token has just started carries no constraints,
+     *   so the driving loop may skip its children and continue from the matching end token
+     */
+    default boolean canSkipChildren() {
+        return false;
+    }
 }
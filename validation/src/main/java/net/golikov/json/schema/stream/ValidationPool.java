@@ -0,0 +1,139 @@
+package net.golikov.json.schema.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of per-document validation state: a context, a reusable {@link ParserToken} and the
+ * {@link BufferRecycler} parsers are created with. A {@link Lease} is used by one thread at a
+ * time and returned to the pool when closed; the pool itself is shared and doesn't rely on
+ * thread locals, so it suits virtual threads as well. In steady state a document is
+ * validated without allocation apart from the parser Jackson creates for it and the lease
+ * handed out per {@link #acquire()}.
+ */
+public class ValidationPool<C extends ResettableValidationContext> {
+
+    private final RecyclingFactory factory;
+    private final KeywordValidator<C> validator;
+    private final StreamValidator<C> loop;
+    private final ArrayBlockingQueue<State<C>> idle;
+
+    public ValidationPool(JsonFactory factory, KeywordValidator<C> validator) {
+        this(factory, validator, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param maximumIdle number of released leases kept for reuse
+     */
+    public ValidationPool(JsonFactory factory, KeywordValidator<C> validator, int maximumIdle) {
+        this.factory = new RecyclingFactory(factory);
+        this.validator = validator;
+        this.loop = new StreamValidator<>(validator);
+        this.idle = new ArrayBlockingQueue<>(maximumIdle);
+    }
+
+    public Lease<C> acquire() {
+        State<C> state = idle.poll();
+        return new Lease<>(this, state == null ? new State<>(validator.newContext()) : state);
+    }
+
+    /**
+     * Validation state leased from the pool. The context returned by {@code validate} is reset
+     * by the next call and must not be used after the lease is closed. Every acquisition gets
+     * its own lease and only its first close returns the state, so closing a stale lease
+     * never hands out state that is in use.
+     */
+    public static final class Lease<C extends ResettableValidationContext> implements AutoCloseable {
+
+        private final ValidationPool<C> pool;
+        private final AtomicReference<State<C>> state;
+
+        private Lease(ValidationPool<C> pool, State<C> state) {
+            this.pool = pool;
+            this.state = new AtomicReference<>(state);
+        }
+
+        public C validate(byte[] document, int offset, int length) throws IOException {
+            State<C> s = state();
+            return s.validate(pool, pool.factory.createParser(document, offset, length, s.recycler));
+        }
+
+        public C validate(InputStream input) throws IOException {
+            State<C> s = state();
+            return s.validate(pool, pool.factory.createParser(input, s.recycler));
+        }
+
+        private State<C> state() {
+            State<C> s = state.get();
+            if (s == null) {
+                throw new IllegalStateException("Lease is closed");
+            }
+            return s;
+        }
+
+        @Override
+        public void close() {
+            State<C> s = state.getAndSet(null);
+            if (s != null) {
+                pool.idle.offer(s);
+            }
+        }
+
+    }
+
+    private static final class State<C extends ResettableValidationContext> {
+
+        private final C context;
+        private final BufferRecycler recycler = new BufferRecycler();
+        private ParserToken token;
+
+        private State(C context) {
+            this.context = context;
+        }
+
+        private C validate(ValidationPool<C> pool, JsonParser parser) throws IOException {
+            try (JsonParser p = parser) {
+                if (token == null) {
+                    token = new ParserToken(p);
+                } else {
+                    token.wrap(p);
+                }
+                context.reset();
+                return pool.loop.validate(context, p, token);
+            }
+        }
+
+    }
+
+    /**
+     * Creates parsers with a given buffer recycler instead of the thread local one.
+     */
+    private static final class RecyclingFactory extends JsonFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        private RecyclingFactory(JsonFactory src) {
+            super(src, src.getCodec());
+        }
+
+        private JsonParser createParser(byte[] data, int offset, int length, BufferRecycler recycler)
+                throws IOException {
+            IOContext context = new IOContext(recycler, _createContentReference(data, offset, length), true);
+            return _createParser(data, offset, length, context);
+        }
+
+        private JsonParser createParser(InputStream in, BufferRecycler recycler) throws IOException {
+            IOContext context = new IOContext(recycler, _createContentReference(in), false);
+            return _createParser(in, context);
+        }
+
+    }
+
+}
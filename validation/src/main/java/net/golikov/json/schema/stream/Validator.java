@@ -0,0 +1,7 @@
+package net.golikov.json.schema.stream;
+
+import java.io.IOException;
+
+public interface Validator<C extends ValidationContext> {
+    C validate(C context, CurrentToken token) throws IOException;
+}
@@ -0,0 +1,54 @@
+package net.golikov.json.schema.stream;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link StructuralScanner} comparing 16 to 64 bytes at a time with the incubating Vector API.
+ * Only loaded when the {@code jdk.incubator.vector} module is resolved.
+ */
+final class VectorStructuralScanner implements StructuralScanner {
+
+    static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = SPECIES.withLanes(long.class);
+    private static final LongVector BYTE_SHIFTS = LongVector.fromArray(LONGS, new long[]{0, 8, 16, 24, 32, 40, 48, 56}, 0);
+    private static final ByteVector ZEROS = ByteVector.zero(SPECIES);
+
+    @Override
+    public void scan(byte[] input, int at, long[] masks) {
+        long quotes = 0;
+        long backslashes = 0;
+        long structurals = 0;
+        for (int i = 0; i < 64; i += SPECIES.length()) {
+            ByteVector bytes = ByteVector.fromArray(SPECIES, input, at + i);
+            // '[' and ']' differ from '{' and '}' only in the 0x20 bit
+            ByteVector braces = bytes.or((byte) 0x20);
+            VectorMask<Byte> structural = braces.eq((byte) '{')
+                    .or(braces.eq((byte) '}'))
+                    .or(bytes.eq((byte) ':'))
+                    .or(bytes.eq((byte) ','));
+            quotes |= bits(bytes.eq((byte) '"')) << i;
+            backslashes |= bits(bytes.eq((byte) '\\')) << i;
+            structurals |= bits(structural) << i;
+        }
+        masks[QUOTES] = quotes;
+        masks[BACKSLASHES] = backslashes;
+        masks[STRUCTURALS] = structurals;
+    }
+
+    /**
+     * Same as {@link VectorMask#toLong()}, which is not an intrinsic before JDK 18: gathers the
+     * bits of every 8 lanes with a multiplication and combines them with an OR reduction.
+     */
+    private static long bits(VectorMask<Byte> mask) {
+        LongVector lanes = ZEROS.blend((byte) 1, mask).reinterpretAsLongs();
+        return lanes.mul(0x0102040810204080L)
+                .lanewise(VectorOperators.LSHR, 56)
+                .lanewise(VectorOperators.LSHL, BYTE_SHIFTS)
+                .reduceLanes(VectorOperators.OR);
+    }
+
+}
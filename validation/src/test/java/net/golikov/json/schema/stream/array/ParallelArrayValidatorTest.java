@@ -0,0 +1,82 @@
+package net.golikov.json.schema.stream.array;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ParallelArrayValidator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelArrayValidatorTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final ObjectScopedRequiredProperties required =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void parallelResultsMatchSequentialOnes() throws Exception {
+        ByteBuffer document = document(20000);
+        ParallelArrayValidator.Result sequential = validator(1).validate(document);
+        ParallelArrayValidator.Result parallel = validator(16).validate(document);
+        assertEquals(20000, sequential.getElements());
+        assertEquals(sequential.getElements(), parallel.getElements());
+        assertArrayEquals(sequential.getInvalidElements(), parallel.getInvalidElements());
+        assertTrue(parallel.hasErrors());
+        assertTrue(parallel.getFallbacks() > 0);
+    }
+
+    @Test
+    public void malformedElementsAreReported() {
+        ByteBuffer document = ByteBuffer.wrap(new String(document(20000).array(), StandardCharsets.UTF_8)
+                .replace("\"longitude\": 10000", "\"longitude\": }").getBytes(StandardCharsets.UTF_8));
+        assertThrows(JsonParseException.class, () -> validator(16).validate(document));
+    }
+
+    @Test
+    public void documentsOtherThanArraysAreNotConstrained() throws Exception {
+        ParallelArrayValidator.Result result = validator(16)
+                .validate(ByteBuffer.wrap("{\"latitude\": 1}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(result.hasErrors());
+        assertEquals(0, result.getElements());
+    }
+
+    @AfterAll
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private ParallelArrayValidator<ObjectScopedRequiredProperties.ValidationContext> validator(int segments) {
+        return new ParallelArrayValidator<>(new JsonFactory(), required, POOL, segments);
+    }
+
+    /**
+     * Elements nest arrays of objects and strings looking like element boundaries, so some of
+     * the guessed boundaries are wrong.
+     */
+    private static ByteBuffer document(int elements) {
+        StringBuilder document = new StringBuilder("[\n");
+        for (int i = 0; i < elements; i++) {
+            document.append(i == 0 ? "" : ",\n")
+                    .append("{\"latitude\": ").append(i)
+                    .append(", \"tags\": [{\"name\": \"a\\\"}, {\"}, {\"name\": \"b\"}]");
+            if (i % 7 != 0) {
+                document.append(", \"longitude\": ").append(i);
+            }
+            document.append('}');
+        }
+        return ByteBuffer.wrap(document.append("\n]").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,106 @@
+package net.golikov.json.schema.stream.composite;
+
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.CurrentToken;
+import net.golikov.json.schema.stream.IndexedRequiredProperties;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ResettableValidationContext;
+import net.golikov.json.schema.stream.required.RequiredPropertiesTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompositeValidatorTest {
+
+    @Test
+    public void noKeywordsReturnNoErrors() throws Exception {
+        CompositeValidator validator = new CompositeValidator(Collections.emptyList());
+        CompositeValidator.ValidationContext result =
+                RequiredPropertiesTestCase.invalid(validator, validator.newContext()).result();
+        assertFalse(result.hasErrors());
+        assertTrue(result.isValidated());
+    }
+
+    @Test
+    public void allKeywordsObserveTheSameTokens() throws Exception {
+        CountingValidator first = new CountingValidator();
+        CountingValidator second = new CountingValidator();
+        CompositeValidator validator = new CompositeValidator(Arrays.asList(first, second,
+                new IndexedRequiredProperties(Collections.singletonList("longitude"))));
+        assertFalse(RequiredPropertiesTestCase.valid(validator, validator.newContext()).result().hasErrors());
+        assertEquals(6, first.tokens);
+        assertEquals(6, second.tokens);
+    }
+
+    @Test
+    public void anyKeywordErrorFailsComposite() throws Exception {
+        CompositeValidator validator = new CompositeValidator(Arrays.asList(
+                new ObjectScopedRequiredProperties(Collections.singletonList("latitude")),
+                new ObjectScopedRequiredProperties(Collections.singletonList("altitude"))));
+        CompositeValidator.ValidationContext result =
+                RequiredPropertiesTestCase.valid(validator, validator.newContext()).result();
+        assertTrue(result.hasErrors());
+        assertTrue(result.isValidated());
+    }
+
+    @Test
+    public void validatedKeywordsNoLongerReceiveTokens() throws Exception {
+        CountingValidator counting = new CountingValidator();
+        counting.validatedAfter = 1;
+        CompositeValidator validator = new CompositeValidator(Arrays.asList(counting,
+                new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"))));
+        CompositeValidator.ValidationContext context = validator.newContext();
+        assertFalse(RequiredPropertiesTestCase.valid(validator, context).result().hasErrors());
+        assertEquals(1, counting.tokens);
+        context.reset();
+        assertTrue(RequiredPropertiesTestCase.invalid(validator, context).result().hasErrors());
+        assertEquals(2, counting.tokens);
+    }
+
+    private static class CountingValidator implements KeywordValidator<CountingValidator.Context> {
+
+        private int tokens;
+        private int validatedAfter = Integer.MAX_VALUE;
+
+        @Override
+        public Context newContext() {
+            return new Context();
+        }
+
+        @Override
+        public Context validate(Context context, CurrentToken token) {
+            tokens++;
+            context.seen++;
+            return context;
+        }
+
+        private class Context implements ResettableValidationContext {
+
+            private int seen;
+
+            @Override
+            public void reset() {
+                seen = 0;
+            }
+
+            @Override
+            public boolean hasErrors() {
+                return false;
+            }
+
+            @Override
+            public boolean isValidated() {
+                return seen >= validatedAfter;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package net.golikov.json.schema.stream.databind;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ValidatingParser;
+import net.golikov.json.schema.stream.ValidationAbortedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidatingParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectScopedRequiredProperties VALIDATOR =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void validatesWhileBinding() throws IOException {
+        ValidatingParser<ObjectScopedRequiredProperties.ValidationContext> parser = parser(
+                "{\"latitude\": 1, \"ignored\": {\"longitude\": [2]}, \"longitude\": 2}", false);
+        Location location = MAPPER.readValue(parser, Location.class);
+        assertEquals(2, location.longitude);
+        assertTrue(parser.getContext().isValidated());
+        assertFalse(parser.getContext().hasErrors());
+    }
+
+    @Test
+    public void reportsErrorsAfterBinding() throws IOException {
+        ValidatingParser<ObjectScopedRequiredProperties.ValidationContext> parser = parser(
+                "{\"latitude\": 1, \"ignored\": {\"longitude\": 2}}", false);
+        assertEquals(1, MAPPER.readValue(parser, Location.class).latitude);
+        assertTrue(parser.getContext().isValidated());
+        assertTrue(parser.getContext().hasErrors());
+    }
+
+    @Test
+    public void failsFastBeforeBindingCompletes() throws IOException {
+        ValidatingParser<ObjectScopedRequiredProperties.ValidationContext> parser = parser(
+                "{\"latitude\": 1, \"ignored\": {\"longitude\": 2}}", true);
+        assertThrows(ValidationAbortedException.class, () -> MAPPER.readValue(parser, Location.class));
+    }
+
+    private static ValidatingParser<ObjectScopedRequiredProperties.ValidationContext> parser(String json,
+                                                                                         boolean failFast)
+            throws IOException {
+        return new ValidatingParser<>(MAPPER.getFactory().createParser(json), VALIDATOR, VALIDATOR.newContext(),
+                failFast);
+    }
+
+    public static class Location {
+
+        public int latitude;
+        public int longitude;
+
+    }
+
+}
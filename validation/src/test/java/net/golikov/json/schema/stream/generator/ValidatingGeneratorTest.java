@@ -0,0 +1,222 @@
+package net.golikov.json.schema.stream.generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.golikov.json.schema.stream.AllowedTypes;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ValidatingGenerator;
+import net.golikov.json.schema.stream.ValidationAbortedException;
+import net.golikov.json.schema.stream.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidatingGeneratorTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final ObjectScopedRequiredProperties VALIDATOR =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void validatesWrittenTokens() throws IOException {
+        StringWriter output = new StringWriter();
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(output), VALIDATOR, VALIDATOR.newContext());
+        generator.writeStartObject();
+        generator.writeFieldName("latitude");
+        generator.writeNumber(1);
+        generator.writeFieldName("names");
+        generator.writeArray(new String[]{"longitude"}, 0, 1);
+        generator.writeFieldName("location");
+        generator.writeStartObject();
+        generator.writeNumberField("longitude", 2.5);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+        assertTrue(generator.getContext().isValidated());
+        assertTrue(generator.getContext().hasErrors());
+        assertEquals("{\"latitude\":1,\"names\":[\"longitude\"],\"location\":{\"longitude\":2.5}}", output.toString());
+    }
+
+    @Test
+    public void validatesCopiedStructure() throws IOException {
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR, VALIDATOR.newContext());
+        try (JsonParser parser = FACTORY.createParser("{\"location\": {}, \"longitude\": 2, \"latitude\": 1}")) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        assertTrue(generator.getContext().isValidated());
+        assertFalse(generator.getContext().hasErrors());
+    }
+
+    @Test
+    public void validatesValuesWrittenByObjectMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> location = new LinkedHashMap<>();
+        location.put("latitude", 1.5);
+        location.put("longitude", Long.MIN_VALUE);
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR, VALIDATOR.newContext());
+        mapper.writeValue(generator, location);
+        assertTrue(generator.getContext().isValidated());
+        assertFalse(generator.getContext().hasErrors());
+        location.remove("longitude");
+        generator = new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR,
+                VALIDATOR.newContext());
+        mapper.writeValue(generator, location);
+        assertTrue(generator.getContext().hasErrors());
+    }
+
+    @Test
+    public void reportsSameNumberTypesOfEncodedNumbersAsParser() throws IOException {
+        String[] numbers = {"0", "-1", "2147483647", "2147483648", "-2147483648", "-2147483649",
+                "1234567890123456789", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+                "-9223372036854775809", "12345678901234567890", "1.5", "-2e3"};
+        List<JsonParser.NumberType> types = new ArrayList<>();
+        Validator<ObjectScopedRequiredProperties.ValidationContext> recording = (context, token) -> {
+            types.add(token.getNumberType());
+            return context;
+        };
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), recording, VALIDATOR.newContext());
+        for (String number : numbers) {
+            generator.writeNumber(number);
+            generator.writeNumber(number.toCharArray(), 0, number.length());
+        }
+        for (int i = 0; i < numbers.length; i++) {
+            try (JsonParser parser = FACTORY.createParser(numbers[i])) {
+                parser.nextToken();
+                assertEquals(parser.getNumberType(), types.get(2 * i), numbers[i]);
+                assertEquals(parser.getNumberType(), types.get(2 * i + 1), numbers[i]);
+            }
+        }
+    }
+
+    @Test
+    public void validatesRawValues() throws IOException {
+        StringWriter output = new StringWriter();
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(output), VALIDATOR, VALIDATOR.newContext());
+        generator.writeStartObject();
+        generator.writeFieldName("location");
+        generator.writeRawValue("{\"latitude\": [1], \"longitude\": 2}");
+        generator.writeFieldName("latitude");
+        generator.writeRawValue(new SerializedString("1"));
+        generator.writeFieldName("names");
+        generator.writeRawValue("[\"longitude\"]".toCharArray(), 0, 13);
+        generator.writeEndObject();
+        generator.close();
+        assertTrue(generator.getContext().hasErrors());
+        assertEquals("{\"location\":{\"latitude\": [1], \"longitude\": 2},\"latitude\":1,\"names\":[\"longitude\"]}",
+                output.toString());
+        generator = new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR, VALIDATOR.newContext());
+        generator.writeStartObject();
+        generator.writeFieldName("location");
+        generator.writeRawValue("x{}x", 1, 2);
+        generator.writeFieldName("latitude");
+        generator.writeRawValue("1");
+        generator.writeFieldName("longitude");
+        generator.writeRawValue("2");
+        generator.writeEndObject();
+        assertTrue(generator.getContext().isValidated());
+        assertFalse(generator.getContext().hasErrors());
+    }
+
+    @Test
+    public void validatesStringsFromReaders() throws IOException {
+        StringWriter output = new StringWriter();
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(output), VALIDATOR, VALIDATOR.newContext());
+        generator.writeStartObject();
+        generator.writeFieldName("names");
+        generator.writeStartArray();
+        generator.writeString(new StringReader("latitude"), -1);
+        generator.writeString(new StringReader("longitude, ignored"), 9);
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+        assertTrue(generator.getContext().hasErrors());
+        assertEquals("{\"names\":[\"latitude\",\"longitude\"]}", output.toString());
+    }
+
+    @Test
+    public void capsStringsFromReaders() throws IOException {
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR, VALIDATOR.newContext());
+        Reader endless = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                Arrays.fill(buffer, offset, offset + length, 'a');
+                return length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertThrows(JsonGenerationException.class, () -> generator.writeString(endless, -1));
+        assertThrows(JsonGenerationException.class,
+                () -> generator.writeString(endless, ValidatingGenerator.MAX_READER_LENGTH + 1));
+        assertThrows(JsonGenerationException.class, () -> generator.writeString(new StringReader("short"), 6));
+    }
+
+    @Test
+    public void rejectsBinaryStreams() throws IOException {
+        ValidatingGenerator<ObjectScopedRequiredProperties.ValidationContext> generator =
+                new ValidatingGenerator<>(FACTORY.createGenerator(new StringWriter()), VALIDATOR, VALIDATOR.newContext());
+        assertThrows(UnsupportedOperationException.class,
+                () -> generator.writeBinary(new ByteArrayInputStream(new byte[]{1, 2}), 2));
+    }
+
+    @Test
+    public void reportsNonIntegerEncodedNumbersAsFloats() throws IOException {
+        AllowedTypes integer = new AllowedTypes(Collections.singletonList(AllowedTypes.Type.INTEGER));
+        for (String number : new String[]{"NaN", "Infinity", "-Infinity", "", "-", "1.5", "1e3", "+1"}) {
+            List<JsonToken> tokens = new ArrayList<>();
+            Validator<AllowedTypes.ValidationContext> recording = (context, token) -> {
+                tokens.add(token.currentToken());
+                return integer.validate(context, token);
+            };
+            ValidatingGenerator<AllowedTypes.ValidationContext> generator = new ValidatingGenerator<>(
+                    FACTORY.createGenerator(new StringWriter()), recording, integer.newContext());
+            generator.writeNumber(number);
+            assertEquals(JsonToken.VALUE_NUMBER_FLOAT, tokens.get(0), number);
+            assertEquals(JsonParser.NumberType.DOUBLE, generator.getNumberType(), number);
+            assertEquals(number.equals("1e3") || number.equals("+1"), !generator.getContext().hasErrors(), number);
+        }
+    }
+
+    @Test
+    public void abortsOnFailure() throws IOException {
+        StringWriter output = new StringWriter();
+        JsonGenerator generator = new ValidatingGenerator<>(FACTORY.createGenerator(output), VALIDATOR,
+                VALIDATOR.newContext(), true);
+        generator.writeStartObject();
+        generator.writeStringField("latitude", "1");
+        assertThrows(ValidationAbortedException.class, generator::writeEndObject);
+        generator.close();
+        assertEquals("{\"latitude\":\"1\"", output.toString());
+    }
+
+}
@@ -0,0 +1,61 @@
+package net.golikov.json.schema.stream.mapped;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import net.golikov.json.schema.stream.MappedFileValidator;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedFileValidatorTest {
+
+    private final MappedFileValidator<ObjectScopedRequiredProperties.ValidationContext> validator =
+            new MappedFileValidator<>(new JsonFactory(),
+                    new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude")), 16);
+
+    @Test
+    public void validatesDocumentSpanningManySegments() throws Exception {
+        Path file = write("{\"latitude\": 1, \"payload\": " + payload(1000) + ", \"longitude\": 2}");
+        assertFalse(validator.validate(file).hasErrors());
+    }
+
+    @Test
+    public void reportsOffsetOfVerdict() throws Exception {
+        String document = "{\"latitude\": 1, \"payload\": " + payload(100) + "}";
+        MappedFileValidator.Result<ObjectScopedRequiredProperties.ValidationContext> result =
+                validator.validate(write(document));
+        assertTrue(result.hasErrors());
+        assertTrue(result.getByteOffset() >= document.length() - 1);
+    }
+
+    @Test
+    public void parseErrorsCarryByteOffset() throws Exception {
+        String document = "{\"latitude\": 1, \"payload\": " + payload(100) + ", x}";
+        JsonParseException e = assertThrows(JsonParseException.class, () -> validator.validate(write(document)));
+        assertTrue(e.getLocation().getByteOffset() >= document.length() - 3);
+    }
+
+    private static String payload(int size) {
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            payload.append(i == 0 ? "" : ", ").append("{\"latitude\": ").append(i).append('}');
+        }
+        return payload.append(']').toString();
+    }
+
+    private static Path write(String document) throws IOException {
+        Path file = Files.createTempFile("mapped", ".json");
+        file.toFile().deleteOnExit();
+        return Files.write(file, document.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,97 @@
+package net.golikov.json.schema.stream.ndjson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.golikov.json.schema.stream.NdjsonValidator;
+import net.golikov.json.schema.stream.NdjsonValidator.LineResult;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NdjsonValidatorTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final String VALID = "{\"latitude\": 1, \"longitude\": 2}";
+    private static final String INVALID = "{\"latitude\": 1, \"location\": {\"longitude\": 2}}";
+
+    private final ObjectScopedRequiredProperties required =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void reportsLinesInInputOrder() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append(i % 3 == 0 ? INVALID : VALID).append('\n');
+        }
+        List<LineResult> results = new ArrayList<>();
+        NdjsonValidator.Summary summary = validator(64).validate(stream(input.toString()), results::add);
+        assertEquals(1000, results.size());
+        long offset = 0;
+        for (int i = 0; i < 1000; i++) {
+            LineResult result = results.get(i);
+            assertEquals(i + 1, result.getLineNumber());
+            assertEquals(offset, result.getByteOffset());
+            assertEquals((i % 3 == 0 ? INVALID : VALID).length(), result.getLength());
+            assertEquals(i % 3 == 0, result.hasErrors());
+            offset += (i % 3 == 0 ? INVALID : VALID).length() + 1;
+        }
+        assertEquals(1000, summary.getDocuments());
+        assertEquals(334, summary.getInvalidDocuments());
+        assertEquals(input.length(), summary.getBytes());
+    }
+
+    @Test
+    public void skipsBlankLinesAndReportsParseErrors() throws Exception {
+        String input = VALID + "\n\n  \r\n{\"latitude\": \n" + VALID;
+        List<LineResult> results = new ArrayList<>();
+        NdjsonValidator.Summary summary = validator(8).validate(stream(input), results::add);
+        assertEquals(3, results.size());
+        assertFalse(results.get(0).hasErrors());
+        assertEquals(4, results.get(1).getLineNumber());
+        assertTrue(results.get(1).hasErrors());
+        assertTrue(results.get(1).getParseError().isPresent());
+        assertEquals(5, results.get(2).getLineNumber());
+        assertFalse(results.get(2).hasErrors());
+        assertEquals(5, summary.getLines());
+    }
+
+    @Test
+    public void reportsContentAfterVerdict() throws Exception {
+        String input = VALID + " garbage\n" + VALID + " " + VALID + "\n{\"latitude\": 1, \"longitude\": 2, \"x\": }\n"
+                + "{\"latitude\": 1, \"longitude\": 2, \"location\": [1, {\"a\": null}]} \n";
+        List<LineResult> results = new ArrayList<>();
+        validator(8).validate(stream(input), results::add);
+        assertEquals(4, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(results.get(i).hasErrors(), String.valueOf(i));
+            assertTrue(results.get(i).getParseError().isPresent(), String.valueOf(i));
+        }
+        assertEquals("Trailing token (of type START_OBJECT) found after value", results.get(1).getParseError().get());
+        assertFalse(results.get(3).hasErrors());
+    }
+
+    @AfterAll
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private NdjsonValidator<ObjectScopedRequiredProperties.ValidationContext> validator(int chunkSize) {
+        return new NdjsonValidator<>(new JsonFactory(), required, POOL, chunkSize);
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,89 @@
+package net.golikov.json.schema.stream.nonblocking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.golikov.json.schema.stream.NonBlockingValidator;
+import net.golikov.json.schema.stream.NonBlockingValidator.Status;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.required.RequiredPropertiesTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NonBlockingValidatorTest {
+
+    private final ObjectScopedRequiredProperties required =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void validDocumentFedByteByByte() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        byte[] bytes = resource("valid.json");
+        Status status = Status.NEED_MORE_INPUT;
+        for (int i = 0; i < bytes.length && status == Status.NEED_MORE_INPUT; i++) {
+            status = validator.feed(bytes, i, 1);
+        }
+        assertEquals(Status.VALID, status);
+    }
+
+    @Test
+    public void invalidDocumentFailsBeforeEndOfInput() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        assertEquals(Status.NEED_MORE_INPUT, feed(validator, "{\"latitude\": 1, \"location\": {\"longitude\""));
+        assertEquals(Status.NEED_MORE_INPUT, feed(validator, ": 2}"));
+        assertEquals(Status.FAILED, feed(validator, "}"));
+        assertEquals(Status.FAILED, validator.endOfInput());
+    }
+
+    @Test
+    public void validDocumentIsAcceptedBeforeItEnds() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        assertEquals(Status.VALID, validator.feed(ByteBuffer.wrap(resource("truncated.json"))));
+    }
+
+    @Test
+    public void directBuffersAreFed() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        byte[] bytes = resource("invalid.json");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        assertEquals(Status.FAILED, validator.feed(buffer));
+    }
+
+    @Test
+    public void validatorIsReusedAfterReset() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        assertEquals(Status.FAILED, validator.feed(ByteBuffer.wrap(resource("invalid.json"))));
+        validator.reset();
+        assertEquals(Status.VALID, validator.feed(ByteBuffer.wrap(resource("valid.json"))));
+    }
+
+    @Test
+    public void incompleteDocumentFailsOnEndOfInput() throws Exception {
+        NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator = validator();
+        assertEquals(Status.NEED_MORE_INPUT, feed(validator, "{\"latitude\": [1, "));
+        assertThrows(IOException.class, validator::endOfInput);
+    }
+
+    private NonBlockingValidator<ObjectScopedRequiredProperties.ValidationContext> validator() throws IOException {
+        return new NonBlockingValidator<>(new JsonFactory(), required);
+    }
+
+    private static Status feed(NonBlockingValidator<?> validator, String chunk) throws IOException {
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        return validator.feed(bytes, 0, bytes.length);
+    }
+
+    private static byte[] resource(String fileName) throws IOException {
+        try (InputStream in = RequiredPropertiesTestCase.class.getResourceAsStream(fileName)) {
+            return in.readAllBytes();
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.golikov.json.schema.stream.nonblocking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ValidatingSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidatingSubscriberTest {
+
+    private final ObjectScopedRequiredProperties required =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void validatesPublishedChunks() throws Exception {
+        ChunkPublisher publisher = new ChunkPublisher("{\"latitude\": 1,", " \"payload\": [1, 2]", ", \"longitude\": 2}");
+        ValidatingSubscriber<ObjectScopedRequiredProperties.ValidationContext> subscriber = subscriber();
+        publisher.subscribe(subscriber);
+        assertFalse(subscriber.getResult().toCompletableFuture().get().hasErrors());
+        assertEquals(4, publisher.requested);
+        assertFalse(publisher.cancelled);
+    }
+
+    @Test
+    public void cancelsSubscriptionOnFailure() throws Exception {
+        ChunkPublisher publisher = new ChunkPublisher("{\"latitude\": 1}", "{\"longitude\": 2}");
+        ValidatingSubscriber<ObjectScopedRequiredProperties.ValidationContext> subscriber = subscriber();
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.getResult().toCompletableFuture().get().hasErrors());
+        assertEquals(1, publisher.requested);
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void completesExceptionallyOnIncompleteDocument() throws Exception {
+        ChunkPublisher publisher = new ChunkPublisher("{\"latitude\": [");
+        ValidatingSubscriber<ObjectScopedRequiredProperties.ValidationContext> subscriber = subscriber();
+        publisher.subscribe(subscriber);
+        assertThrows(ExecutionException.class, () -> subscriber.getResult().toCompletableFuture().get());
+    }
+
+    private ValidatingSubscriber<ObjectScopedRequiredProperties.ValidationContext> subscriber() throws Exception {
+        return new ValidatingSubscriber<>(new JsonFactory(), required);
+    }
+
+    private static class ChunkPublisher implements Flow.Publisher<ByteBuffer> {
+
+        private final List<String> chunks;
+        private int next;
+        private long requested;
+        private boolean cancelled;
+
+        private ChunkPublisher(String... chunks) {
+            this.chunks = Arrays.asList(chunks);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    if (cancelled) {
+                        return;
+                    }
+                    if (next < chunks.size()) {
+                        subscriber.onNext(ByteBuffer.wrap(chunks.get(next++).getBytes(StandardCharsets.UTF_8)));
+                    } else if (next++ == chunks.size()) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+    }
+
+}
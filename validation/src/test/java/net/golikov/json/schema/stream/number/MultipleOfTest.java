@@ -0,0 +1,126 @@
+package net.golikov.json.schema.stream.number;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import net.golikov.json.schema.stream.MultipleOf;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import net.golikov.json.schema.stream.ValidatingGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultipleOfTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String[] DIVISORS = {
+            "1", "2", "0.1", "0.01", "0.3", "2.5", "1e-3", "7", "1e2", "0.000000000000000000001",
+            "123456789012345678901234567890", "9223372036854775807", "0.0000000000000000013",
+    };
+
+    @Test
+    public void checksMultiplesExactly() throws IOException {
+        for (String divisor : DIVISORS) {
+            BigDecimal value = new BigDecimal(divisor);
+            MultipleOf multipleOf = new MultipleOf(value);
+            for (String number : NumberRangeTest.NUMBERS) {
+                boolean multiple = new BigDecimal(number).remainder(value).signum() == 0;
+                assertEquals(!multiple, validate(multipleOf, number), number + " by " + divisor);
+            }
+        }
+    }
+
+    @Test
+    public void isExactWhereDoublesAreNot() throws IOException {
+        MultipleOf tenth = new MultipleOf(new BigDecimal("0.1"));
+        assertFalse(validate(tenth, "0.3"));
+        assertFalse(validate(tenth, "4.35e1"));
+        assertTrue(validate(tenth, "0.35"));
+        assertFalse(validate(new MultipleOf(new BigDecimal("0.01")), "19.99"));
+    }
+
+    @Test
+    public void checksHugeExponentsWithoutExpandingThem() throws IOException {
+        MultipleOf tenth = new MultipleOf(new BigDecimal("0.1"));
+        assertFalse(validate(tenth, "1e200000"));
+        assertFalse(validate(tenth, "1e999999999"));
+        assertFalse(validate(tenth, "-25E+2147483647"));
+        assertTrue(validate(tenth, "1e-999999999"));
+        assertFalse(validate(tenth, "0e-999999999"));
+        assertTrue(validate(tenth, "123456789012345678901234567890e-25"));
+        assertFalse(validate(tenth, "12345678901234567890123000000000000000000000000e-25"));
+        MultipleOf seven = new MultipleOf(new BigDecimal("7"));
+        assertTrue(validate(seven, "3e999999999"));
+        assertFalse(validate(seven, "7e999999999"));
+        assertFalse(validate(seven, "7000000000000000000000000000000000000000000000000000e-51"));
+        assertTrue(validate(seven, "7000000000000000000000000000000000000000000000000000e-52"));
+        MultipleOf tiny = new MultipleOf(new BigDecimal("1e-999999999"));
+        assertFalse(validate(tiny, "123e-999999999"));
+        assertTrue(validate(tiny, "1.5e-999999999"));
+        assertFalse(validate(tiny, "12345678901234567890.5"));
+        assertThrows(JsonProcessingException.class, () -> validate(tenth, "1e99999999999"));
+    }
+
+    @Test
+    public void rejectsNonPositiveDivisor() {
+        assertThrows(IllegalArgumentException.class, () -> new MultipleOf(BigDecimal.ZERO));
+    }
+
+    @Test
+    public void rejectsNonFiniteNumbers() throws IOException {
+        MultipleOf seven = new MultipleOf(new BigDecimal("7"));
+        for (String json : new String[]{"NaN", "Infinity", "-Infinity"}) {
+            assertTrue(validateNonNumeric(seven, json), json);
+        }
+        for (double value : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertTrue(generate(seven, value), Double.toString(value));
+        }
+        assertFalse(generate(seven, 0));
+    }
+
+    /**
+     * @return whether the value has errors, read by a parser allowing non-numeric numbers
+     */
+    private static boolean validateNonNumeric(MultipleOf validator, String json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            parser.enable(JsonParser.Feature.ALLOW_NON_NUMERIC_NUMBERS);
+            return new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+    }
+
+    /**
+     * @return whether the value has errors, written by a generator
+     */
+    private static boolean generate(MultipleOf validator, double value) throws IOException {
+        try (ValidatingGenerator<MultipleOf.ValidationContext> generator = new ValidatingGenerator<>(
+                FACTORY.createGenerator(new StringWriter()), validator, validator.newContext())) {
+            generator.writeNumber(value);
+            return generator.getContext().hasErrors();
+        }
+    }
+
+    /**
+     * @return whether the value has errors, checked with both Jackson and the tokenizer
+     */
+    private static boolean validate(MultipleOf validator, String json) throws IOException {
+        boolean errors;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            errors = new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(errors, new StreamValidator<>(validator)
+                .validate(validator.newContext(), new Utf8Tokenizer(bytes, 0, bytes.length)).hasErrors(), json);
+        return errors;
+    }
+
+}
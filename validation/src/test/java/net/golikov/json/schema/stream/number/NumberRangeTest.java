@@ -0,0 +1,119 @@
+package net.golikov.json.schema.stream.number;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import net.golikov.json.schema.stream.NumberRange;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import net.golikov.json.schema.stream.ValidatingGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NumberRangeTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    static final String[] NUMBERS = {
+            "0", "-0", "1", "-1", "10", "100", "1.0", "1.5", "-1.5", "0.1", "0.10", "0.09999999999999999999",
+            "1e2", "1E+2", "1e-2", "-2.5e-3", "100e-2", "1.000000000000000000000001", "123456789012345678",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+            "123456789012345678901234567890", "0.000000000000000000001", "1e400", "-1e400", "1e-400",
+            "3.14159", "42", "0.3", "7.5e1", "1e18", "1e19", "99999999999999999.9",
+    };
+
+    @Test
+    public void comparesNumbersExactly() throws IOException {
+        for (String bound : NUMBERS) {
+            BigDecimal limit = new BigDecimal(bound);
+            NumberRange minimum = new NumberRange(limit, null, null, null);
+            NumberRange exclusiveMinimum = new NumberRange(null, limit, null, null);
+            NumberRange maximum = new NumberRange(null, null, limit, null);
+            NumberRange exclusiveMaximum = new NumberRange(null, null, null, limit);
+            for (String number : NUMBERS) {
+                int comparison = new BigDecimal(number).compareTo(limit);
+                String description = number + " against " + bound;
+                assertEquals(comparison < 0, validate(minimum, number), description);
+                assertEquals(comparison <= 0, validate(exclusiveMinimum, number), description);
+                assertEquals(comparison > 0, validate(maximum, number), description);
+                assertEquals(comparison >= 0, validate(exclusiveMaximum, number), description);
+            }
+        }
+    }
+
+    @Test
+    public void appliesAllBounds() throws IOException {
+        NumberRange range = new NumberRange(new BigDecimal("-1"), new BigDecimal("-1.5"),
+                new BigDecimal("10"), new BigDecimal("9.99"));
+        assertFalse(validate(range, "-1"));
+        assertFalse(validate(range, "9.98"));
+        assertTrue(validate(range, "9.99"));
+        assertTrue(validate(range, "-1.25"));
+        assertTrue(validate(range, "1e999999999"));
+        assertTrue(validate(range, "-1e999999999"));
+        assertFalse(validate(range, "1e-999999999"));
+    }
+
+    @Test
+    public void acceptsValuesOfOtherTypes() throws IOException {
+        NumberRange range = new NumberRange(BigDecimal.ONE, null, BigDecimal.ONE, null);
+        for (String json : new String[]{"\"5\"", "null", "true", "{\"a\": 5}", "[5]"}) {
+            assertFalse(validate(range, json), json);
+        }
+    }
+
+    @Test
+    public void rejectsNonFiniteNumbers() throws IOException {
+        NumberRange range = new NumberRange(new BigDecimal("-1"), null, new BigDecimal("1"), null);
+        for (String json : new String[]{"NaN", "Infinity", "-Infinity"}) {
+            assertTrue(validateNonNumeric(range, json), json);
+        }
+        for (double value : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertTrue(generate(range, value), Double.toString(value));
+        }
+        assertFalse(generate(range, 0));
+    }
+
+    /**
+     * @return whether the value has errors, read by a parser allowing non-numeric numbers
+     */
+    private static boolean validateNonNumeric(NumberRange validator, String json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            parser.enable(JsonParser.Feature.ALLOW_NON_NUMERIC_NUMBERS);
+            return new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+    }
+
+    /**
+     * @return whether the value has errors, written by a generator
+     */
+    private static boolean generate(NumberRange validator, double value) throws IOException {
+        try (ValidatingGenerator<NumberRange.ValidationContext> generator = new ValidatingGenerator<>(
+                FACTORY.createGenerator(new StringWriter()), validator, validator.newContext())) {
+            generator.writeNumber(value);
+            return generator.getContext().hasErrors();
+        }
+    }
+
+    /**
+     * @return whether the value has errors, checked with both Jackson and the tokenizer
+     */
+    private static boolean validate(NumberRange validator, String json) throws IOException {
+        boolean errors;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            errors = new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(errors, new StreamValidator<>(validator)
+                .validate(validator.newContext(), new Utf8Tokenizer(bytes, 0, bytes.length)).hasErrors(), json);
+        return errors;
+    }
+
+}
@@ -0,0 +1,130 @@
+package net.golikov.json.schema.stream.patterns;
+
+import net.golikov.json.schema.stream.PropertyNameAutomaton;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PropertyNameAutomatonTest {
+
+    private static final List<String> NAMES = Arrays.asList("a", "foo", "ab", "");
+    private static final List<String> PATTERNS = Arrays.asList("^a", "b$", "^[a-c]+\\d{2,3}$", "x|y",
+            "^(ab)*$", "(?:foo|bar)baz", "[^a-z]", "^.{3}$", "\\w+_\\W", "a?b+c*", "^$", "\\s", "^x-",
+            "[\\d-]", "(?<n>q)z", "a{2}", "\\x41|\\u0042", "[.]", "^\\.", "^[^]", "a{", "x*",
+            "\\bab", "(a)\\1", "a(?=b)", "$^", "a*$^", "(?:$^)");
+
+    @Test
+    public void matchesNamesAndPatternsLikeRegularExpressions() {
+        assertMatchesLikeRegularExpressions(PATTERNS);
+        for (String pattern : PATTERNS) {
+            assertMatchesLikeRegularExpressions(Collections.singletonList(pattern));
+        }
+    }
+
+    @Test
+    public void returnsSharedArraysForAutomatonPatterns() {
+        PropertyNameAutomaton automaton = new PropertyNameAutomaton(Collections.singletonList("id"),
+                Arrays.asList("^x-", "-y$"));
+        char[] name = "x-y".toCharArray();
+        assertArrayEquals(new int[]{1, 2}, automaton.match(name, 0, name.length));
+        assertSame(automaton.match(name, 0, name.length), automaton.match(name, 0, name.length));
+        assertEquals(0, automaton.match("z".toCharArray(), 0, 1).length);
+    }
+
+    @Test
+    public void stopsReadingOnceEveryPatternHasMatched() {
+        // lengths past the end of the buffer show that the rest of it is not read
+        char[] text = "abxyz".toCharArray();
+        PropertyNameAutomaton one = new PropertyNameAutomaton(Collections.emptyList(), Collections.singletonList("ab"));
+        assertArrayEquals(new int[]{0}, one.match(text, 0, 1000));
+        PropertyNameAutomaton two = new PropertyNameAutomaton(Collections.singletonList("a"), Arrays.asList("b+", "x"));
+        assertArrayEquals(new int[]{1, 2}, two.match(text, 0, 1000));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> two.match(text, 3, 1000));
+    }
+
+    @Test
+    public void passesBeginOnlyAtStartOfInput() {
+        for (String pattern : Arrays.asList("$^", "a*$^", "(?:$^)")) {
+            // without names the initial set of states comes back after reading a unit
+            PropertyNameAutomaton automaton = new PropertyNameAutomaton(Collections.emptyList(),
+                    Collections.singletonList(pattern));
+            for (String name : Arrays.asList("", "a", "ab")) {
+                char[] text = name.toCharArray();
+                assertEquals(Pattern.compile(pattern).matcher(name).find() ? 1 : 0,
+                        automaton.match(text, 0, text.length).length, pattern + " on " + name);
+            }
+        }
+    }
+
+    @Test
+    public void leavesPatternsBeyondStateLimitToRegularExpressions() {
+        List<String> patterns = new ArrayList<>();
+        for (char c = 'a'; c <= 'p'; c++) {
+            patterns.add(String.valueOf(c));
+        }
+        PropertyNameAutomaton automaton = new PropertyNameAutomaton(Collections.emptyList(), patterns);
+        char[] name = "pocket".toCharArray();
+        assertArrayEquals(new int[]{2, 4, 10, 14, 15}, automaton.match(name, 0, name.length));
+    }
+
+    @Test
+    public void leavesNestedRepetitionsToRegularExpressions() {
+        List<String> patterns = Arrays.asList("(a{100}){100}", "(((a{100}){100}){100}){100}", "^(b{2}){3}$");
+        assertMatchesLikeRegularExpressions(patterns);
+        PropertyNameAutomaton automaton = new PropertyNameAutomaton(Collections.emptyList(), patterns.subList(0, 1));
+        char[] name = new char[10_000];
+        Arrays.fill(name, 'a');
+        assertArrayEquals(new int[]{0}, automaton.match(name, 0, name.length));
+        assertEquals(0, automaton.match(name, 1, name.length - 1).length);
+    }
+
+    @Test
+    public void rejectsInvalidPatterns() {
+        assertThrows(PatternSyntaxException.class, () -> PropertyNameAutomaton.checkPattern("(a"));
+        assertThrows(PatternSyntaxException.class, () -> PropertyNameAutomaton.checkPattern("[b-a]"));
+        assertThrows(PatternSyntaxException.class,
+                () -> new PropertyNameAutomaton(Collections.emptyList(), Collections.singletonList("*")));
+        PropertyNameAutomaton.checkPattern("^(?<name>[a-z]+)\\b");
+    }
+
+    private static void assertMatchesLikeRegularExpressions(List<String> patterns) {
+        PropertyNameAutomaton automaton = new PropertyNameAutomaton(NAMES, patterns);
+        List<Pattern> expected = new ArrayList<>();
+        for (String pattern : patterns) {
+            // the ECMA-262 patterns java.util.regex reads differently
+            expected.add(Pattern.compile(pattern.equals("a{") ? "a\\{" : pattern.replace("[^]", "[\\s\\S]")));
+        }
+        Random random = new Random(23);
+        char[] alphabet = "abcfoqxyzAB019_-. \u00e9".toCharArray();
+        for (int i = 0; i < 5_000; i++) {
+            char[] name = new char[random.nextInt(7)];
+            for (int j = 0; j < name.length; j++) {
+                name[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String text = i < NAMES.size() ? NAMES.get(i) : new String(name);
+            List<Integer> ids = new ArrayList<>();
+            if (NAMES.contains(text)) {
+                ids.add(NAMES.indexOf(text));
+            }
+            for (int j = 0; j < expected.size(); j++) {
+                if (expected.get(j).matcher(text).find()) {
+                    ids.add(NAMES.size() + j);
+                }
+            }
+            char[] buffer = ("[" + text + "]").toCharArray();
+            assertEquals(ids.toString(), Arrays.toString(automaton.match(buffer, 1, text.length())), text);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package net.golikov.json.schema.stream.pool;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ValidationPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidationPoolTest {
+
+    private static final byte[] VALID = "{\"latitude\": 1, \"longitude\": 2}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID = "{\"latitude\": 1}".getBytes(StandardCharsets.UTF_8);
+
+    private final ValidationPool<ObjectScopedRequiredProperties.ValidationContext> pool = new ValidationPool<>(
+            new JsonFactory(), new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude")), 4);
+
+    @Test
+    public void leaseIsReusedAcrossDocuments() throws IOException {
+        ObjectScopedRequiredProperties.ValidationContext context;
+        try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> lease = pool.acquire()) {
+            context = lease.validate(INVALID, 0, INVALID.length);
+            assertTrue(context.hasErrors());
+            assertSame(context, lease.validate(VALID, 0, VALID.length));
+            assertFalse(context.hasErrors());
+        }
+        try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> lease = pool.acquire()) {
+            assertSame(context, lease.validate(new ByteArrayInputStream(INVALID)));
+            assertTrue(context.hasErrors());
+        }
+    }
+
+    @Test
+    public void closingLeaseTwiceReturnsItOnce() throws IOException {
+        ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> lease = pool.acquire();
+        ObjectScopedRequiredProperties.ValidationContext context = lease.validate(VALID, 0, VALID.length);
+        lease.close();
+        lease.close();
+        try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> first = pool.acquire();
+             ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> second = pool.acquire()) {
+            assertSame(context, first.validate(VALID, 0, VALID.length));
+            assertNotSame(context, second.validate(VALID, 0, VALID.length));
+        }
+    }
+
+    @Test
+    public void closingStaleLeaseDoesNotReturnReacquiredState() throws IOException {
+        ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> stale = pool.acquire();
+        stale.close();
+        try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> current = pool.acquire()) {
+            stale.close();
+            try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> other = pool.acquire()) {
+                assertNotSame(current, other);
+                assertNotSame(current.validate(VALID, 0, VALID.length), other.validate(INVALID, 0, INVALID.length));
+                assertFalse(current.validate(VALID, 0, VALID.length).hasErrors());
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> stale.validate(VALID, 0, VALID.length));
+    }
+
+    @Test
+    public void leasesAreConfinedToOneThreadAtATime() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                byte[] document = i % 2 == 0 ? VALID : INVALID;
+                boolean valid = document == VALID;
+                results.add(executor.submit(() -> {
+                    try (ValidationPool.Lease<ObjectScopedRequiredProperties.ValidationContext> lease = pool.acquire()) {
+                        return lease.validate(document, 0, document.length).hasErrors() != valid;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package net.golikov.json.schema.stream.properties;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import net.golikov.json.schema.stream.AllowedTypes;
+import net.golikov.json.schema.stream.AllowedTypes.Type;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.ObjectProperties;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import net.golikov.json.schema.stream.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectPropertiesTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final ObjectProperties properties = properties();
+
+    @Test
+    public void validatesValuesWithSubschemasOfTheirNames() throws IOException {
+        assertFalse(validate("{}").hasErrors());
+        assertFalse(validate("[{\"latitude\": \"not a number\"}]").hasErrors());
+        assertFalse(validate("{\"latitude\": 1.5, \"location\": {\"x\": 1, \"y\": \"any\"}}").hasErrors());
+        assertFalse(validate("{\"other\": {\"latitude\": \"x\"}, \"location\": {\"x\": 2.0}}").hasErrors());
+        ObjectProperties.ValidationContext context = validate("{\"latitude\": 1, \"location\": {\"x\": 1.5}}");
+        assertTrue(context.hasErrors());
+        assertEquals("location", properties.getPropertyNames().get(context.getInvalidProperty()));
+        assertTrue(validate("{\"location\": {\"y\": 1}}").hasErrors());
+        assertTrue(validate("{\"location\": [], \"latitude\": 1}").hasErrors());
+        assertEquals(0, validate("{\"latitude\": null}").getInvalidProperty());
+    }
+
+    @Test
+    public void resetsSubschemaContextsForRepeatedNames() throws IOException {
+        assertTrue(validate("{\"location\": {\"x\": 1}, \"location\": {}}").hasErrors());
+    }
+
+    @Test
+    public void skipsValuesWithoutSubschema() throws IOException {
+        assertEquals(7, countTokens("{\"skipped\": {\"a\": [1, {\"b\": 2}]}, \"latitude\": 1}"));
+        // the location type is settled by its first token, the rest of it is skipped as well
+        ObjectProperties typeOnly = new ObjectProperties(Collections.singletonMap("location",
+                new AllowedTypes(Collections.singletonList(Type.ARRAY))));
+        int[] tokens = new int[1];
+        Validator<ObjectProperties.ValidationContext> counting = (context, token) -> {
+            tokens[0]++;
+            return typeOnly.validate(context, token);
+        };
+        byte[] document = "{\"location\": [1, [2], {\"c\": 3}]}".getBytes(StandardCharsets.UTF_8);
+        assertFalse(new StreamValidator<>(counting).validate(typeOnly.newContext(),
+                new Utf8Tokenizer(document, 0, document.length)).hasErrors());
+        assertEquals(5, tokens[0]);
+    }
+
+    @Test
+    public void failsFastOnInvalidValue() throws IOException {
+        ObjectProperties.ValidationContext context = validate("{\"latitude\": \"x\", \"location\": {\"x\": ");
+        assertTrue(context.isValidated());
+        assertTrue(context.hasErrors());
+    }
+
+    @Test
+    public void validatesValuesWithSubschemasOfMatchingPatternsOrAdditionalSubschema() throws IOException {
+        Map<String, KeywordValidator<?>> patterns = new LinkedHashMap<>();
+        patterns.put("^x-", new AllowedTypes(Collections.singletonList(Type.STRING)));
+        patterns.put("-n$", new AllowedTypes(Collections.singletonList(Type.NUMBER)));
+        ObjectProperties closed = new ObjectProperties(Collections.singletonMap("id",
+                new AllowedTypes(Collections.singletonList(Type.INTEGER))), patterns,
+                new AllowedTypes(Collections.emptyList()));
+        assertEquals(Arrays.asList("^x-", "-n$"), closed.getPatterns());
+        assertFalse(validate(closed, "{\"id\": 1, \"x-a\": \"b\", \"a-n\": 1.5}").hasErrors());
+        assertEquals(1, validate(closed, "{\"x-a\": \"b\", \"x-n\": 1}").getInvalidProperty());
+        assertEquals(2, validate(closed, "{\"a-n\": 1, \"x-n-n\": \"b\"}").getInvalidProperty());
+        assertEquals(3, validate(closed, "{\"id\": 1, \"other\": {\"id\": 1}}").getInvalidProperty());
+        assertEquals(0, validate(closed, "{\"id\": \"1\"}").getInvalidProperty());
+        ObjectProperties open = new ObjectProperties(Collections.emptyMap(), patterns, null);
+        assertFalse(validate(open, "{\"other\": {\"x-a\": 1}, \"\\u0078-a\": \"b\"}").hasErrors());
+        assertTrue(validate(open, "{\"\\u0078-a\": 1}").hasErrors());
+    }
+
+    private int countTokens(String json) throws IOException {
+        int[] tokens = new int[1];
+        Validator<ObjectProperties.ValidationContext> counting = (context, token) -> {
+            tokens[0]++;
+            return properties.validate(context, token);
+        };
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            assertFalse(new StreamValidator<>(counting).validate(properties.newContext(), parser).hasErrors());
+        }
+        return tokens[0];
+    }
+
+    private ObjectProperties.ValidationContext validate(String json) throws IOException {
+        return validate(properties, json);
+    }
+
+    private static ObjectProperties.ValidationContext validate(ObjectProperties properties, String json)
+            throws IOException {
+        ObjectProperties.ValidationContext context;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            context = new StreamValidator<>(properties).validate(properties.newContext(), parser);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(context.hasErrors(), new StreamValidator<>(properties)
+                .validate(properties.newContext(), new Utf8Tokenizer(bytes, 0, bytes.length)).hasErrors(), json);
+        return context;
+    }
+
+    private static ObjectProperties properties() {
+        Map<String, KeywordValidator<?>> location = new LinkedHashMap<>();
+        location.put("x", new AllowedTypes(Collections.singletonList(Type.INTEGER)));
+        Map<String, KeywordValidator<?>> properties = new LinkedHashMap<>();
+        properties.put("latitude", new AllowedTypes(Collections.singletonList(Type.NUMBER)));
+        properties.put("location", new CompiledSchema(Arrays.asList(
+                new AllowedTypes(Collections.singletonList(Type.OBJECT)),
+                new ObjectScopedRequiredProperties(Collections.singletonList("x")),
+                new ObjectProperties(location))));
+        return new ObjectProperties(properties);
+    }
+
+}
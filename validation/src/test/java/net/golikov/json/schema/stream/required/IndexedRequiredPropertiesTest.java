@@ -0,0 +1,63 @@
+package net.golikov.json.schema.stream.required;
+
+import net.golikov.json.schema.stream.IndexedRequiredProperties;
+import net.golikov.json.schema.stream.IndexedRequiredProperties.ValidationContext;
+import net.golikov.json.schema.stream.PropertyNameTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexedRequiredPropertiesTest {
+
+    @Test
+    public void noRequiredPropertiesReturnNoErrors() throws Exception {
+        IndexedRequiredProperties validator = new IndexedRequiredProperties(Collections.emptyList());
+        assertFalse(RequiredPropertiesTestCase.invalid(validator, validator.newContext())
+                .result().hasErrors());
+    }
+
+    @Test
+    public void invalidRequiredObjectProperties() throws Exception {
+        IndexedRequiredProperties validator = new IndexedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        assertTrue(RequiredPropertiesTestCase.invalid(validator, validator.newContext())
+                .result().hasErrors());
+    }
+
+    @Test
+    public void validRequiredObjectProperties() throws Exception {
+        IndexedRequiredProperties validator = new IndexedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        assertFalse(RequiredPropertiesTestCase.valid(validator, validator.newContext())
+                .result().hasErrors());
+    }
+
+    @Test
+    public void contextIsUpdatedInPlaceAndCanBeReset() throws Exception {
+        IndexedRequiredProperties validator = new IndexedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        ValidationContext context = validator.newContext();
+        ValidationContext result = RequiredPropertiesTestCase.valid(validator, context).result();
+        assertSame(context, result);
+        assertTrue(context.isFound(0) && context.isFound(1));
+        context.reset();
+        assertTrue(context.hasErrors());
+        assertFalse(context.isFound(0) || context.isFound(1));
+    }
+
+    @Test
+    public void nameTableMatchesCharBufferSlices() {
+        PropertyNameTable table = new PropertyNameTable(Arrays.asList("latitude", "longitude"));
+        char[] buffer = "xxlongitudexx".toCharArray();
+        assertEquals(1, table.indexOf(buffer, 2, 9));
+        assertEquals(-1, table.indexOf(buffer, 2, 8));
+        assertEquals(0, table.indexOf("latitude"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PropertyNameTable(Arrays.asList("latitude", "latitude")));
+    }
+
+}
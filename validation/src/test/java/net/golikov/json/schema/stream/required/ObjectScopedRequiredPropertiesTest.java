@@ -0,0 +1,51 @@
+package net.golikov.json.schema.stream.required;
+
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties.ValidationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectScopedRequiredPropertiesTest {
+
+    private final ObjectScopedRequiredProperties validator =
+            new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+
+    @Test
+    public void invalidRequiredObjectProperties() throws Exception {
+        ValidationContext result = RequiredPropertiesTestCase.invalid(validator, validator.newContext()).result();
+        assertTrue(result.hasErrors());
+        assertTrue(result.isValidated());
+    }
+
+    @Test
+    public void validRequiredObjectProperties() throws Exception {
+        ValidationContext result = RequiredPropertiesTestCase.valid(validator, validator.newContext()).result();
+        assertFalse(result.hasErrors());
+        assertTrue(result.isValidated());
+    }
+
+    @Test
+    public void nestedPropertiesDoNotSatisfyRootRequirements() throws Exception {
+        assertTrue(new RequiredPropertiesTestCase<>(validator, validator.newContext(), "nested.json")
+                .result().hasErrors());
+    }
+
+    @Test
+    public void stopsAsSoonAsAllRequiredPropertiesAreFound() throws Exception {
+        assertFalse(new RequiredPropertiesTestCase<>(validator, validator.newContext(), "truncated.json")
+                .result().hasErrors());
+    }
+
+    @Test
+    public void contextCanBeReset() throws Exception {
+        ValidationContext context = validator.newContext();
+        RequiredPropertiesTestCase.valid(validator, context).result();
+        context.reset();
+        assertTrue(RequiredPropertiesTestCase.invalid(validator, context).result().hasErrors());
+    }
+
+}
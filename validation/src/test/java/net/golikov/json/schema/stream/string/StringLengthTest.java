@@ -0,0 +1,136 @@
+package net.golikov.json.schema.stream.string;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.CurrentToken;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.StringLength;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StringLengthTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    public void countsCodePoints() throws IOException {
+        StringLength upToTwo = new StringLength(0, 2);
+        assertFalse(validate(upToTwo, "\"\ud83d\ude00\ud83d\ude00\""));
+        assertFalse(validate(upToTwo, "\"\\ud83d\\ude00\u00e9\""));
+        assertTrue(validate(upToTwo, "\"abc\""));
+        assertTrue(validate(upToTwo, "\"\ud83d\ude00\\n\u00e9\""));
+        StringLength atLeastTwo = new StringLength(2, Long.MAX_VALUE);
+        assertFalse(validate(atLeastTwo, "\"ab\""));
+        assertTrue(validate(atLeastTwo, "\"\ud83d\ude00\""));
+        assertTrue(validate(atLeastTwo, "\"\""));
+    }
+
+    @Test
+    public void countsSurrogatePairsSplitBetweenChunks() throws IOException {
+        char[] pairs = new char[2000];
+        for (int i = 0; i < pairs.length; i += 2) {
+            pairs[i] = '\ud83d';
+            pairs[i + 1] = '\ude00';
+        }
+        String json = "\"a" + new String(pairs) + "\"";
+        assertFalse(validate(new StringLength(1001, 1001), json));
+        assertTrue(validate(new StringLength(0, 1000), json));
+        assertTrue(validate(new StringLength(1002, Long.MAX_VALUE), json));
+    }
+
+    @Test
+    public void acceptsValuesOfOtherTypes() throws IOException {
+        StringLength length = new StringLength(5, 5);
+        for (String json : new String[]{"1", "12345678", "null", "true", "{\"abc\": \"de\"}", "[\"a\"]"}) {
+            assertFalse(validate(length, json), json);
+        }
+    }
+
+    @Test
+    public void stopsReadingStringOnceLongerThanMaxLength() throws IOException {
+        char[] value = new char[100_000];
+        Arrays.fill(value, 'x');
+        byte[] json = ("\"" + new String(value) + "\"").getBytes(StandardCharsets.UTF_8);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(json, 0, json.length);
+        assertEquals(JsonToken.VALUE_STRING, tokenizer.nextToken());
+        int[] written = new int[1];
+        CurrentToken counting = new CurrentToken() {
+            @Override
+            public JsonToken currentToken() {
+                return tokenizer.currentToken();
+            }
+
+            @Override
+            public String getText() throws IOException {
+                return tokenizer.getText();
+            }
+
+            @Override
+            public int getText(Writer writer) throws IOException {
+                return tokenizer.getText(new Writer() {
+                    @Override
+                    public void write(char[] chars, int offset, int length) throws IOException {
+                        written[0] += length;
+                        writer.write(chars, offset, length);
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+            }
+
+            @Override
+            public char[] getTextCharacters() throws IOException {
+                return tokenizer.getTextCharacters();
+            }
+
+            @Override
+            public int getTextLength() throws IOException {
+                return tokenizer.getTextLength();
+            }
+
+            @Override
+            public int getTextOffset() {
+                return tokenizer.getTextOffset();
+            }
+
+            @Override
+            public JsonParser.NumberType getNumberType() throws IOException {
+                return tokenizer.getNumberType();
+            }
+        };
+        StringLength length = new StringLength(0, 10);
+        assertTrue(length.validate(length.newContext(), counting).hasErrors());
+        assertTrue(written[0] < 1000, String.valueOf(written[0]));
+    }
+
+    /**
+     * @return whether the value has errors, checked with both Jackson and the tokenizer
+     */
+    private static boolean validate(StringLength validator, String json) throws IOException {
+        boolean errors;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            errors = new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(errors, new StreamValidator<>(validator)
+                .validate(validator.newContext(), new Utf8Tokenizer(bytes, 0, bytes.length)).hasErrors(), json);
+        return errors;
+    }
+
+}
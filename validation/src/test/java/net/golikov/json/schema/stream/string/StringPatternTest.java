@@ -0,0 +1,65 @@
+package net.golikov.json.schema.stream.string;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.StringPattern;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StringPatternTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    public void searchesStringsForPattern() throws IOException {
+        StringPattern date = new StringPattern("^\\d{4}-\\d{2}-\\d{2}$");
+        assertFalse(validate(date, "\"2024-01-31\""));
+        assertTrue(validate(date, "\"2024-1-31\""));
+        assertTrue(validate(date, "\"x2024-01-31\""));
+        StringPattern contains = new StringPattern("b+c");
+        assertFalse(validate(contains, "\"aaabbbcdd\""));
+        assertFalse(validate(contains, "\"\\u0062c\""));
+        assertTrue(validate(contains, "\"cb\""));
+    }
+
+    @Test
+    public void runsUnsupportedPatternsWithRegularExpressions() throws IOException {
+        StringPattern word = new StringPattern("\\bcat\\b");
+        assertFalse(validate(word, "\"a cat here\""));
+        assertTrue(validate(word, "\"concatenate\""));
+        assertThrows(PatternSyntaxException.class, () -> new StringPattern("(a"));
+    }
+
+    @Test
+    public void acceptsValuesOfOtherTypes() throws IOException {
+        StringPattern pattern = new StringPattern("^a$");
+        for (String json : new String[]{"1", "null", "false", "{\"b\": \"b\"}", "[\"b\"]"}) {
+            assertFalse(validate(pattern, json), json);
+        }
+    }
+
+    /**
+     * @return whether the value has errors, checked with both Jackson and the tokenizer
+     */
+    private static boolean validate(StringPattern validator, String json) throws IOException {
+        boolean errors;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            errors = new StreamValidator<>(validator).validate(validator.newContext(), parser).hasErrors();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(errors, new StreamValidator<>(validator)
+                .validate(validator.newContext(), new Utf8Tokenizer(bytes, 0, bytes.length)).hasErrors(), json);
+        return errors;
+    }
+
+}
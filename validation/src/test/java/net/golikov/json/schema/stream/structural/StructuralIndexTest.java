@@ -0,0 +1,174 @@
+package net.golikov.json.schema.stream.structural;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.JsonParserWrapper;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.StructuralIndex;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StructuralIndexTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final String[] NAMES = {"latitude", "longitude", "name", "\u00e9t\u00e9"};
+    private static final String[] STRINGS = {"", "plain", "\\\"", "\\\\", "\\\\\\\"", "{[:,]}", "\\u005c\\\"",
+            "\u20ac\ud83d\ude00", "0123456789012345678901234567890123456789012345678901234567890123"};
+
+    @Test
+    public void usesVectorApiWhenAvailable() {
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                new StructuralIndex().isVectorized());
+        assertFalse(StructuralIndex.scalar().isVectorized());
+    }
+
+    @Test
+    public void indexesTokensJacksonReports() throws IOException {
+        Random random = new Random(42);
+        StructuralIndex vectorized = new StructuralIndex();
+        StructuralIndex scalar = StructuralIndex.scalar();
+        for (int i = 0; i < 200; i++) {
+            byte[] document = document(random);
+            List<Integer> expected = jacksonTokenOffsets(document);
+            for (StructuralIndex index : Arrays.asList(vectorized, scalar)) {
+                index.index(document, 0, document.length);
+                assertTrue(index.isBalanced());
+                List<Integer> actual = new ArrayList<>();
+                for (int j = 0; j < index.size(); j++) {
+                    byte b = document[index.position(j)];
+                    if (b != ':' && b != ',') {
+                        actual.add(index.position(j));
+                    }
+                }
+                assertEquals(expected, actual, new String(document, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void indexesWithinOffset() {
+        byte[] document = "xx[\"]\", {}]yy".getBytes(StandardCharsets.UTF_8);
+        StructuralIndex index = new StructuralIndex().index(document, 2, document.length - 4);
+        assertTrue(index.isBalanced());
+        assertEquals(6, index.size());
+        assertEquals(10, index.closeOf(2));
+        assertEquals(9, index.closeOf(8));
+        assertEquals(-1, index.closeOf(3));
+    }
+
+    @Test
+    public void detectsUnbalancedDocuments() {
+        for (String json : new String[]{"{]", "[{]}", "[[]", "]", "\"abc", "[\"a\\\"]"}) {
+            byte[] document = json.getBytes(StandardCharsets.UTF_8);
+            StructuralIndex index = new StructuralIndex().index(document, 0, document.length);
+            assertFalse(index.isBalanced(), json);
+            assertEquals(-1, index.closeOf(0), json);
+        }
+    }
+
+    @Test
+    public void skipsChildrenWithSameResults() throws IOException {
+        ObjectScopedRequiredProperties validator = new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        StreamValidator<ObjectScopedRequiredProperties.ValidationContext> loop = new StreamValidator<>(validator);
+        Random random = new Random(7);
+        StructuralIndex index = new StructuralIndex();
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(new byte[0], 0, 0);
+        int valid = 0;
+        for (int i = 0; i < 200; i++) {
+            byte[] document = document(random);
+            boolean expected;
+            try (JsonParserWrapper parser = new JsonParserWrapper(FACTORY.createParser(document))) {
+                expected = loop.validate(validator.newContext(), parser).hasErrors();
+            }
+            tokenizer.reset(document, 0, document.length, index.index(document, 0, document.length));
+            assertEquals(expected, loop.validate(validator.newContext(), tokenizer).hasErrors(),
+                    new String(document, StandardCharsets.UTF_8));
+            valid += expected ? 0 : 1;
+        }
+        assertTrue(valid > 0 && valid < 200);
+    }
+
+    @Test
+    public void jumpsOverSkippedContent() throws IOException {
+        byte[] document = "[{\"a\": [1, 2]}, {\"b\": x}, 3]".getBytes(StandardCharsets.UTF_8);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(document, 0, document.length);
+        tokenizer.reset(document, 0, document.length, new StructuralIndex().index(document, 0, document.length));
+        assertEquals(JsonToken.START_ARRAY, tokenizer.nextToken());
+        assertEquals(JsonToken.START_OBJECT, tokenizer.nextToken());
+        tokenizer.skipChildren();
+        assertEquals(JsonToken.END_OBJECT, tokenizer.currentToken());
+        assertEquals(13, tokenizer.getTokenOffset());
+        assertEquals(JsonToken.START_OBJECT, tokenizer.nextToken());
+        tokenizer.skipChildren();
+        assertEquals(JsonToken.END_OBJECT, tokenizer.currentToken());
+        assertEquals(JsonToken.VALUE_NUMBER_INT, tokenizer.nextToken());
+        assertEquals("3", tokenizer.getText());
+        assertEquals(JsonToken.END_ARRAY, tokenizer.nextToken());
+        assertTrue(tokenizer.inRoot());
+    }
+
+    private static List<Integer> jacksonTokenOffsets(byte[] document) throws IOException {
+        List<Integer> offsets = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(document)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token.isStructStart() || token.isStructEnd() || token == JsonToken.FIELD_NAME
+                        || token == JsonToken.VALUE_STRING) {
+                    offsets.add((int) parser.getTokenLocation().getByteOffset());
+                }
+            }
+        }
+        return offsets;
+    }
+
+    private static byte[] document(Random random) {
+        StringBuilder json = new StringBuilder();
+        value(random, json, 0);
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void value(Random random, StringBuilder json, int depth) {
+        int kind = random.nextInt(depth < 4 ? 6 : 3);
+        switch (kind) {
+            case 0:
+                json.append('"').append(STRINGS[random.nextInt(STRINGS.length)]).append('"');
+                break;
+            case 1:
+                json.append(random.nextInt(2) == 0 ? "-12.5e3" : "true");
+                break;
+            case 2:
+                json.append("null");
+                break;
+            case 3:
+                json.append('[');
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    value(random, json, depth + 1);
+                    json.append(i > 1 ? ", " : "");
+                }
+                json.append(']');
+                break;
+            default:
+                json.append('{');
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    json.append('"').append(NAMES[random.nextInt(NAMES.length)]).append("\":");
+                    value(random, json, depth + 1);
+                    json.append(i > 1 ? "," : "");
+                }
+                json.append("}");
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package net.golikov.json.schema.stream.tee;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.CurrentToken;
+import net.golikov.json.schema.stream.JsonParserWrapper;
+import net.golikov.json.schema.stream.KeywordValidator;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ResettableValidationContext;
+import net.golikov.json.schema.stream.ValidatingTee;
+import net.golikov.json.schema.stream.ValidationAbortedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidatingTeeTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final String DOCUMENT = "{ \"latitude\" : 1, \"location\" : {\"names\": [\"a\", null]}, \"longitude\" : 2 } [1]";
+
+    @Test
+    public void copiesWholeValueWhileValidating() throws IOException {
+        ObjectScopedRequiredProperties validator = new ObjectScopedRequiredProperties(Collections.singletonList("latitude"));
+        StringWriter output = new StringWriter();
+        ObjectScopedRequiredProperties.ValidationContext context;
+        try (JsonParser parser = FACTORY.createParser(DOCUMENT);
+             JsonParserWrapper token = new JsonParserWrapper(parser);
+             JsonGenerator generator = FACTORY.createGenerator(output)) {
+            context = new ValidatingTee<>(validator).copy(validator.newContext(), token, generator);
+            assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+        }
+        assertFalse(context.hasErrors());
+        assertEquals("{\"latitude\":1,\"location\":{\"names\":[\"a\",null]},\"longitude\":2}", output.toString());
+    }
+
+    @Test
+    public void copiesInvalidValueUnlessAborting() throws IOException {
+        ObjectScopedRequiredProperties validator = new ObjectScopedRequiredProperties(Collections.singletonList("altitude"));
+        StringWriter output = new StringWriter();
+        try (JsonParser parser = FACTORY.createParser(DOCUMENT);
+             JsonParserWrapper token = new JsonParserWrapper(parser);
+             JsonGenerator generator = FACTORY.createGenerator(output)) {
+            assertTrue(new ValidatingTee<>(validator).copy(validator.newContext(), token, generator).hasErrors());
+        }
+        assertEquals("{\"latitude\":1,\"location\":{\"names\":[\"a\",null]},\"longitude\":2}", output.toString());
+    }
+
+    @Test
+    public void abortsOutputOnFirstFailure() throws IOException {
+        NoNulls validator = new NoNulls();
+        NoNulls.Context context = validator.newContext();
+        StringWriter output = new StringWriter();
+        try (JsonParser parser = FACTORY.createParser(DOCUMENT);
+             JsonParserWrapper token = new JsonParserWrapper(parser);
+             JsonGenerator generator = FACTORY.createGenerator(output)) {
+            ValidationAbortedException e = assertThrows(ValidationAbortedException.class,
+                    () -> new ValidatingTee<>(validator, true).copy(context, token, generator));
+            assertSame(context, e.getContext());
+        }
+        assertEquals("{\"latitude\":1,\"location\":{\"names\":[\"a\"", output.toString());
+    }
+
+    private static class NoNulls implements KeywordValidator<NoNulls.Context> {
+
+        @Override
+        public Context newContext() {
+            return new Context();
+        }
+
+        @Override
+        public Context validate(Context context, CurrentToken token) {
+            context.failed |= token.currentToken() == JsonToken.VALUE_NULL;
+            return context;
+        }
+
+        private static class Context implements ResettableValidationContext {
+
+            private boolean failed;
+
+            @Override
+            public void reset() {
+                failed = false;
+            }
+
+            @Override
+            public boolean hasErrors() {
+                return failed;
+            }
+
+            @Override
+            public boolean isValidated() {
+                return failed;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package net.golikov.json.schema.stream.token;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.JsonParserWrapper;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.ParserToken;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.required.RequiredPropertiesTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParserTokenTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    public void exposesSameTokensAsWrapper() throws IOException {
+        String json = "{\"name\": \"value\", \"numbers\": [1, 12345678901, 1.5, true, null]}";
+        try (JsonParser parser = FACTORY.createParser(json);
+             JsonParserWrapper wrapper = new JsonParserWrapper(FACTORY.createParser(json))) {
+            ParserToken token = new ParserToken(parser);
+            JsonToken current;
+            while ((current = parser.nextToken()) != null) {
+                assertEquals(current, wrapper.nextToken());
+                assertEquals(wrapper.currentTokenId(), token.currentTokenId());
+                assertEquals(wrapper.getText(), token.getText());
+                assertEquals(wrapper.getText(), new String(token.getTextCharacters(), token.getTextOffset(),
+                        token.getTextLength()));
+                if (current.isNumeric()) {
+                    assertEquals(wrapper.getNumberType(), token.getNumberType());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void drivesValidationWithoutWrapper() throws IOException {
+        ObjectScopedRequiredProperties validator = new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        StreamValidator<ObjectScopedRequiredProperties.ValidationContext> loop = new StreamValidator<>(validator);
+        try (JsonParser parser = FACTORY.createParser(RequiredPropertiesTestCase.class.getResource("valid.json"))) {
+            assertFalse(loop.validate(validator.newContext(), parser).hasErrors());
+        }
+        try (JsonParser parser = FACTORY.createParser(RequiredPropertiesTestCase.class.getResource("nested.json"))) {
+            assertTrue(loop.validate(validator.newContext(), parser).hasErrors());
+        }
+    }
+
+}
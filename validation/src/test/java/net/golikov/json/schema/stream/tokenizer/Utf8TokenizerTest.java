@@ -0,0 +1,153 @@
+package net.golikov.json.schema.stream.tokenizer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.PropertyNameTable;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Utf8TokenizerTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String[] WELL_FORMED = {
+            "{}", "[]", "0", "-0", "\"\"", " true ", "null", "{\"a\": [1, -2.5e3, 1E+2, 0.5, false]}",
+            "[2147483647, 2147483648, -2147483648, -2147483649, 1234567890, 9223372036854775807,"
+                    + " 9223372036854775808, -9223372036854775808, -9223372036854775809, 123456789012345678901]",
+            "{\"esc\\\"aped\": \"line\\nbreak \\u00e9\\/\\\\\", \"\u00e9t\u00e9\": \"\ud83d\ude00 \u20ac\"}",
+            "[[[{\"deep\": {}}]], {}, []] ", "{\"a\":1}{\"b\":2}", "1 2", "\ufeff[ ]", "\ufeff{\"bom\": 1}",
+    };
+
+    private static final String[] MALFORMED = {
+            "{", "[1,]", "{\"a\" 1}", "{\"a\":}", "{,}", "[1 2]", "01", "1.", "1e", "-", "tru", "truex",
+            "nul", "\"abc", "\"a\\x\"", "\"a\\u12g4\"", "\"tab\there\"", "{'a': 1}", "[1}", "{\"a\": 1]",
+            "[1x]", "1x", "{\"a\": 1,}", "[,1]",
+    };
+
+    @Test
+    public void reportsSameTokensAsJackson() throws IOException {
+        for (String json : WELL_FORMED) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            assertSameTokens(json, new Utf8Tokenizer(bytes, 0, bytes.length));
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            assertSameTokens(json, new Utf8Tokenizer(direct));
+        }
+    }
+
+    @Test
+    public void writesSameTextAsItReturns() throws IOException {
+        char[] pairs = new char[1500];
+        for (int i = 0; i < pairs.length; i += 3) {
+            pairs[i] = 'a';
+            pairs[i + 1] = '\ud83d';
+            pairs[i + 2] = '\ude00';
+        }
+        String[] documents = Arrays.copyOf(WELL_FORMED, WELL_FORMED.length + 1);
+        documents[WELL_FORMED.length] = "[\"" + new String(pairs) + "\\n\", \"" + new String(pairs, 1, 1000) + "\"]";
+        for (String json : documents) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Utf8Tokenizer tokenizer = new Utf8Tokenizer(bytes, 0, bytes.length);
+            while (tokenizer.nextToken() != null) {
+                // strings are decoded in chunks only before their text is requested otherwise
+                StringWriter writer = new StringWriter();
+                int written = tokenizer.getText(writer);
+                assertEquals(tokenizer.getText(), writer.toString(), json);
+                assertEquals(tokenizer.getTextLength(), written);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsWhatJacksonRejects() throws IOException {
+        for (String json : MALFORMED) {
+            assertThrows(JsonProcessingException.class, () -> drain(FACTORY.createParser(json)), json);
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Utf8Tokenizer tokenizer = new Utf8Tokenizer(bytes, 0, bytes.length);
+            assertThrows(JsonProcessingException.class, () -> {
+                while (tokenizer.nextToken() != null) {
+                    tokenizer.getText();
+                }
+            }, json);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidUtf8() {
+        byte[] bytes = {'"', (byte) 0xC3, 'a', '"'};
+        assertThrows(JsonProcessingException.class, () -> new Utf8Tokenizer(bytes, 0, bytes.length).nextToken());
+        byte[] start = {'"', (byte) 0x80, '"'};
+        assertThrows(JsonProcessingException.class, () -> new Utf8Tokenizer(start, 0, start.length).nextToken());
+    }
+
+    @Test
+    public void looksNamesUpAsRawBytes() throws IOException {
+        PropertyNameTable names = new PropertyNameTable(Arrays.asList("latitude", "\u00e9t\u00e9", "a\"b"));
+        byte[] bytes = "{\"latitude\": 1, \"\u00e9t\u00e9\": 2, \"a\\\"b\": 3, \"x\": 4}".getBytes(StandardCharsets.UTF_8);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(bytes, 0, bytes.length);
+        int[] indices = new int[4];
+        int found = 0;
+        JsonToken token;
+        while ((token = tokenizer.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                indices[found++] = tokenizer.lookUp(names);
+            }
+        }
+        assertEquals(Arrays.toString(new int[]{0, 1, 2, -1}), Arrays.toString(indices));
+    }
+
+    @Test
+    public void drivesValidation() throws IOException {
+        ObjectScopedRequiredProperties validator = new ObjectScopedRequiredProperties(Arrays.asList("latitude", "longitude"));
+        StreamValidator<ObjectScopedRequiredProperties.ValidationContext> loop = new StreamValidator<>(validator);
+        byte[] valid = "{\"skipped\": {\"latitude\": [1]}, \"latitude\": 1, \"longitude\": 2}".getBytes(StandardCharsets.UTF_8);
+        byte[] invalid = "{\"skipped\": {\"latitude\": 1, \"longitude\": 2}}".getBytes(StandardCharsets.UTF_8);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(valid, 0, valid.length);
+        assertFalse(loop.validate(validator.newContext(), tokenizer).hasErrors());
+        tokenizer.reset(invalid, 0, invalid.length);
+        assertTrue(loop.validate(validator.newContext(), tokenizer).hasErrors());
+    }
+
+    private static void assertSameTokens(String json, Utf8Tokenizer tokenizer) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json.getBytes(StandardCharsets.UTF_8))) {
+            JsonToken expected;
+            do {
+                expected = parser.nextToken();
+                assertEquals(expected, tokenizer.nextToken(), json);
+                if (expected != null) {
+                    assertEquals(parser.getText(), tokenizer.getText(), json);
+                    assertEquals(parser.getText(), new String(tokenizer.getTextCharacters(),
+                            tokenizer.getTextOffset(), tokenizer.getTextLength()), json);
+                    if (expected.isNumeric()) {
+                        assertEquals(parser.getNumberType(), tokenizer.getNumberType(), parser.getText());
+                    }
+                    assertEquals(parser.getParsingContext().inRoot(), tokenizer.inRoot(), json);
+                }
+            } while (expected != null);
+        }
+    }
+
+    private static void drain(JsonParser parser) throws IOException {
+        try (JsonParser p = parser) {
+            while (p.nextToken() != null) {
+                p.getText();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package net.golikov.json.schema.stream.type;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.golikov.json.schema.stream.AllowedTypes;
+import net.golikov.json.schema.stream.AllowedTypes.Type;
+import net.golikov.json.schema.stream.CompiledSchema;
+import net.golikov.json.schema.stream.CompositeValidator;
+import net.golikov.json.schema.stream.ObjectScopedRequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
+import net.golikov.json.schema.stream.Utf8Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AllowedTypesTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    public void acceptsValuesOfAllowedType() throws IOException {
+        assertTypes("\"text\"", Type.STRING);
+        assertTypes("1.5", Type.NUMBER);
+        assertTypes("-12", Type.NUMBER, Type.INTEGER);
+        assertTypes("123456789012345678901234567890", Type.NUMBER, Type.INTEGER);
+        assertTypes("true", Type.BOOLEAN);
+        assertTypes("false", Type.BOOLEAN);
+        assertTypes("null", Type.NULL);
+        assertTypes("{\"a\": [1]}", Type.OBJECT);
+        assertTypes("[{}]", Type.ARRAY);
+    }
+
+    @Test
+    public void treatsNumbersWithoutFractionalPartAsIntegers() throws IOException {
+        for (String integer : new String[]{"1.0", "-0.0", "0e-5", "1e3", "1.5e1", "10e-1", "1200E-2", "1e999"}) {
+            assertTypes(integer, Type.NUMBER, Type.INTEGER);
+        }
+        for (String fraction : new String[]{"1.5", "0.1", "15e-1", "1e-1", "1.25e1", "1e-999"}) {
+            assertTypes(fraction, Type.NUMBER);
+        }
+    }
+
+    @Test
+    public void acceptsUnions() throws IOException {
+        AllowedTypes nullableString = new AllowedTypes(Arrays.asList(Type.STRING, Type.NULL));
+        assertFalse(validate(nullableString, "\"a\"").hasErrors());
+        assertFalse(validate(nullableString, "null").hasErrors());
+        assertTrue(validate(nullableString, "1").hasErrors());
+        assertTrue(validate(new AllowedTypes(Collections.emptyList()), "{}").hasErrors());
+    }
+
+    @Test
+    public void failsFastOnWrongRootType() throws IOException {
+        CompiledSchema schema = new CompiledSchema(Arrays.asList(
+                new AllowedTypes(Collections.singletonList(Type.OBJECT)),
+                new ObjectScopedRequiredProperties(Collections.singletonList("latitude"))));
+        StreamValidator<CompositeValidator.ValidationContext> loop = new StreamValidator<>(schema);
+        try (JsonParser parser = FACTORY.createParser("[1, 2, {\"latitude\": ")) {
+            CompositeValidator.ValidationContext context = loop.validate(schema.newContext(), parser);
+            assertTrue(context.isValidated());
+            assertTrue(context.hasErrors());
+            assertEquals(JsonToken.START_ARRAY, parser.currentToken());
+        }
+        try (JsonParser parser = FACTORY.createParser("{\"latitude\": 1}")) {
+            assertFalse(loop.validate(schema.newContext(), parser).hasErrors());
+        }
+    }
+
+    private static void assertTypes(String json, Type... expected) throws IOException {
+        EnumSet<Type> matching = EnumSet.noneOf(Type.class);
+        for (Type type : Type.values()) {
+            AllowedTypes validator = new AllowedTypes(Collections.singletonList(type));
+            boolean valid = !validate(validator, json).hasErrors();
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Utf8Tokenizer tokenizer = new Utf8Tokenizer(bytes, 0, bytes.length);
+            assertEquals(valid, !new StreamValidator<>(validator).validate(validator.newContext(), tokenizer).hasErrors(),
+                    json);
+            if (valid) {
+                matching.add(type);
+            }
+        }
+        assertEquals(EnumSet.copyOf(Arrays.asList(expected)), matching, json);
+    }
+
+    private static AllowedTypes.ValidationContext validate(AllowedTypes validator, String json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return new StreamValidator<>(validator).validate(validator.newContext(), parser);
+        }
+    }
+
+}
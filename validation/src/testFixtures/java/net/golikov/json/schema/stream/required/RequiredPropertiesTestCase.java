@@ -2,45 +2,53 @@ package net.golikov.json.schema.stream.required;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonToken;
 import net.golikov.json.schema.stream.JsonParserWrapper;
 import net.golikov.json.schema.stream.RequiredProperties;
+import net.golikov.json.schema.stream.StreamValidator;
 import net.golikov.json.schema.stream.ValidationContext;
+import net.golikov.json.schema.stream.Validator;
 
 import java.io.IOException;
 
-public class RequiredPropertiesTestCase {
+public class RequiredPropertiesTestCase<C extends ValidationContext> {
 
     private final String testCaseFileName;
-    private final RequiredProperties.ValidationContext initialContext;
+    private final Validator<C> validator;
+    private final C initialContext;
 
-    public RequiredPropertiesTestCase(RequiredProperties.ValidationContext initialContext,
+    public RequiredPropertiesTestCase(Validator<C> validator, C initialContext,
                                       String testCaseFileName) {
         this.testCaseFileName = testCaseFileName;
+        this.validator = validator;
         this.initialContext = initialContext;
     }
 
-    public static RequiredPropertiesTestCase invalid(RequiredProperties.ValidationContext initialContext) {
-        return new RequiredPropertiesTestCase(initialContext, "invalid.json");
+    public static RequiredPropertiesTestCase<RequiredProperties.ValidationContext> invalid(
+            RequiredProperties.ValidationContext initialContext) {
+        return invalid(new RequiredProperties(), initialContext);
     }
 
-    public static RequiredPropertiesTestCase valid(RequiredProperties.ValidationContext initialContext) {
-        return new RequiredPropertiesTestCase(initialContext, "valid.json");
+    public static RequiredPropertiesTestCase<RequiredProperties.ValidationContext> valid(
+            RequiredProperties.ValidationContext initialContext) {
+        return valid(new RequiredProperties(), initialContext);
     }
 
-    public ValidationContext result() throws IOException {
+    public static <C extends ValidationContext> RequiredPropertiesTestCase<C> invalid(Validator<C> validator,
+                                                                                     C initialContext) {
+        return new RequiredPropertiesTestCase<>(validator, initialContext, "invalid.json");
+    }
+
+    public static <C extends ValidationContext> RequiredPropertiesTestCase<C> valid(Validator<C> validator,
+                                                                                   C initialContext) {
+        return new RequiredPropertiesTestCase<>(validator, initialContext, "valid.json");
+    }
+
+    public C result() throws IOException {
         JsonFactory factory = new JsonFactory();
-        RequiredProperties.ValidationContext res = this.initialContext;
         try (JsonParser p = factory.createParser(getClass().getResource(testCaseFileName));
              JsonParserWrapper parser = new JsonParserWrapper(p)) {
-            RequiredProperties validator = new RequiredProperties();
-            JsonToken jsonToken = parser.nextToken();
-            while (jsonToken != null) {
-                res = validator.validate(res, parser);
-                jsonToken = parser.nextToken();
-            }
+            return new StreamValidator<>(validator).validate(initialContext, parser);
         }
-        return res;
     }
 
-}
\ No newline at end of file
+}